@@ -0,0 +1,19 @@
+package study.datajpa.projection;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 컴파일 시점에 프로젝션 매퍼(타입명_Mapper)를 생성한다 - ProjectionProcessor
+ *
+ * 인터페이스 : getter 마다 필드를 가진 구현 클래스 + 매퍼 생성 (프록시, Map 없음)
+ * 클래스(DTO) : public 생성자 하나 - 파라미터 이름이 프로퍼티 이름, 생성자를 직접 호출하는 매퍼 생성
+ * */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateMapper {
+}
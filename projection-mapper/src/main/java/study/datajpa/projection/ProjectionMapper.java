@@ -0,0 +1,19 @@
+package study.datajpa.projection;
+
+import java.util.List;
+
+/**
+ * 조회 결과 한 row(Object[]) -> 프로젝션 객체
+ *
+ * row 의 값 순서는 properties() 순서와 같아야 한다
+ * -> properties() 로 select 절을 만들고, 그 결과를 map() 에 넘긴다
+ * */
+public interface ProjectionMapper<T> {
+
+    Class<T> type();
+
+    // 프로퍼티 경로 - 루트 엔티티 기준 (username, 중첩 프로젝션은 team.name)
+    List<String> properties();
+
+    T map(Object[] row);
+}
@@ -0,0 +1,59 @@
+package study.datajpa.projection;
+
+/**
+ * 프로젝션 타입 -> 생성된 매퍼 조회
+ *
+ * 매퍼 클래스는 타입당 한번만 찾아서(reflection) 만들고 ClassValue 에 캐시한다
+ * -> 이후 호출은 캐시 조회만 - 생성자 탐색, 프록시 생성 없음
+ * */
+public final class ProjectionMappers {
+
+    public static final String MAPPER_SUFFIX = "_Mapper";
+
+    private static final ClassValue<ProjectionMapper<?>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected ProjectionMapper<?> computeValue(Class<?> type) {
+            return load(type);
+        }
+    };
+
+    private ProjectionMappers() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ProjectionMapper<T> get(Class<T> type) {
+        return (ProjectionMapper<T>) MAPPERS.get(type);
+    }
+
+    // 중첩 프로젝션 - row[from] ~ row[to - 1] 이 모두 null 이면 중첩 객체도 null (left join 결과 없음)
+    public static boolean allNull(Object[] row, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (row[i] != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 생성되는 매퍼 클래스 이름 (패키지 제외) - 중첩 타입은 _ 로 이어붙인다
+     * UsernameOnly -> UsernameOnly_Mapper, Outer.Inner -> Outer_Inner_Mapper
+     */
+    public static String mapperSimpleName(String nestedTypeName) {
+        return nestedTypeName.replace('.', '_').replace('$', '_') + MAPPER_SUFFIX;
+    }
+
+    private static ProjectionMapper<?> load(Class<?> type) {
+        String packageName = type.getPackageName();
+        String nestedName = packageName.isEmpty() ? type.getName() : type.getName().substring(packageName.length() + 1);
+        String mapperName = (packageName.isEmpty() ? "" : packageName + ".") + mapperSimpleName(nestedName);
+        try {
+            Class<?> mapperClass = Class.forName(mapperName, true, type.getClassLoader());
+            return (ProjectionMapper<?>) mapperClass.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("생성된 매퍼가 없습니다. @GenerateMapper 를 붙였는지 확인하세요: " + type.getName(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("매퍼를 생성할수 없습니다: " + mapperName, e);
+        }
+    }
+}
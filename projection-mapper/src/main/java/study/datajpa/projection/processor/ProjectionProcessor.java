@@ -0,0 +1,335 @@
+package study.datajpa.projection.processor;
+
+import study.datajpa.projection.GenerateMapper;
+import study.datajpa.projection.ProjectionMappers;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @GenerateMapper 가 붙은 프로젝션 타입마다 ProjectionMapper 구현 클래스를 생성
+ *
+ * 인터페이스 UsernameOnly
+ * -> UsernameOnly_Mapper : map(row) 가 new Impl((String) row[0]) - getter 는 필드를 그대로 반환
+ * 클래스 UsernameOnlyDto
+ * -> UsernameOnlyDto_Mapper : map(row) 가 new UsernameOnlyDto((String) row[0])
+ *
+ * 중첩 프로젝션 NestedClosedProjections (getTeam() 이 TeamInfo 인터페이스)
+ * -> 프로퍼티를 펼쳐서 경로로 만든다 : username, team.name
+ * -> map(row) 가 new Impl((String) row[0], allNull(row, 1, 2) ? null : new Impl_team((String) row[1]))
+ * -> 중첩 값이 전부 null 이면(left join 에 팀이 없으면) getTeam() 은 null
+ *
+ * 프로퍼티 순서 = 인터페이스 getter 선언 순서(상위 인터페이스 먼저) / 생성자 파라미터 순서
+ * */
+@SupportedAnnotationTypes("study.datajpa.projection.GenerateMapper")
+public class ProjectionProcessor extends AbstractProcessor {
+
+    private static final int MAX_DEPTH = 5;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateMapper.class)) {
+            TypeElement type = (TypeElement) element;
+            try {
+                write(type, node(type, "", new ArrayDeque<>()));
+            } catch (IllegalStateException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(), element);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "매퍼 생성 실패: " + e.getMessage(), element);
+            }
+        }
+        return true;
+    }
+
+    // ---------- 프로퍼티 수집
+
+    private Node node(TypeElement type, String path, Deque<TypeElement> parents) {
+        if (parents.contains(type) || parents.size() >= MAX_DEPTH) {
+            throw new IllegalStateException("중첩 프로젝션이 순환하거나 너무 깊습니다: " + path);
+        }
+        parents.push(type);
+        Node node = new Node(type, path);
+        if (type.getKind() == ElementKind.INTERFACE) {
+            collectGetters(type, node, parents);
+            if (node.properties.isEmpty()) {
+                throw new IllegalStateException("getter 가 없는 프로젝션입니다: " + type.getQualifiedName());
+            }
+        } else {
+            collectConstructorParameters(type, node, parents);
+        }
+        parents.pop();
+        return node;
+    }
+
+    private void collectGetters(TypeElement type, Node node, Deque<TypeElement> parents) {
+        for (TypeMirror parent : type.getInterfaces()) {
+            collectGetters((TypeElement) ((DeclaredType) parent).asElement(), node, parents);
+        }
+        for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+            if (!method.getModifiers().contains(Modifier.ABSTRACT) || !method.getParameters().isEmpty()) {
+                continue; // default, static 메서드는 구현하지 않는다
+            }
+            String propertyName = propertyName(method);
+            if (propertyName == null) {
+                throw new IllegalStateException("getter 가 아닌 메서드입니다: " + method);
+            }
+            node.properties.add(property(propertyName, method.getReturnType(), method.getSimpleName().toString(), node, parents));
+        }
+    }
+
+    private void collectConstructorParameters(TypeElement type, Node node, Deque<TypeElement> parents) {
+        List<ExecutableElement> constructors = new ArrayList<>();
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                constructors.add(constructor);
+            }
+        }
+        if (constructors.size() != 1) {
+            throw new IllegalStateException("클래스 프로젝션은 public 생성자가 하나여야 합니다: " + type.getQualifiedName());
+        }
+        for (VariableElement parameter : constructors.get(0).getParameters()) {
+            node.properties.add(property(parameter.getSimpleName().toString(), parameter.asType(), null, node, parents));
+        }
+    }
+
+    // 반환 타입이 (java.* 가 아닌) 인터페이스면 중첩 프로젝션
+    private Property property(String name, TypeMirror type, String getter, Node owner, Deque<TypeElement> parents) {
+        String path = owner.path.isEmpty() ? name : owner.path + "." + name;
+        Node nested = null;
+        if (type.getKind() == TypeKind.DECLARED) {
+            TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+            String packageName = processingEnv.getElementUtils().getPackageOf(element).getQualifiedName().toString();
+            if (element.getKind() == ElementKind.INTERFACE && !packageName.startsWith("java.")) {
+                nested = node(element, path, parents);
+            }
+        }
+        return new Property(name, path, type, getter, nested);
+    }
+
+    private String propertyName(ExecutableElement method) {
+        String name = method.getSimpleName().toString();
+        if (name.startsWith("get") && name.length() > 3) {
+            return decapitalize(name.substring(3));
+        }
+        if (name.startsWith("is") && name.length() > 2 && method.getReturnType().getKind() == TypeKind.BOOLEAN) {
+            return decapitalize(name.substring(2));
+        }
+        return null;
+    }
+
+    private String decapitalize(String name) {
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    // ---------- 소스 생성
+
+    private void write(TypeElement type, Node root) throws IOException {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String typeName = type.getQualifiedName().toString();
+        String nestedName = packageName.isEmpty() ? typeName : typeName.substring(packageName.length() + 1);
+        String mapperName = ProjectionMappers.mapperSimpleName(nestedName);
+
+        List<String> paths = new ArrayList<>();
+        root.collectLeafPaths(paths);
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/** Generated projection mapper for ").append(typeName).append(" */\n");
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n");
+        source.append("public final class ").append(mapperName)
+                .append(" implements study.datajpa.projection.ProjectionMapper<").append(typeName).append("> {\n\n");
+
+        source.append("    private static final java.util.List<String> PROPERTIES = java.util.List.of(");
+        for (int i = 0; i < paths.size(); i++) {
+            source.append(i == 0 ? "" : ", ").append('"').append(paths.get(i)).append('"');
+        }
+        source.append(");\n\n");
+
+        source.append("    @Override\n    public Class<").append(typeName).append("> type() {\n")
+                .append("        return ").append(typeName).append(".class;\n    }\n\n");
+        source.append("    @Override\n    public java.util.List<String> properties() {\n")
+                .append("        return PROPERTIES;\n    }\n\n");
+
+        source.append("    @Override\n    @SuppressWarnings(\"unchecked\")\n")
+                .append("    public ").append(typeName).append(" map(Object[] row) {\n")
+                .append("        return ").append(newExpression(root, new int[]{0})).append(";\n    }\n");
+
+        writeImpls(source, root);
+        source.append("}\n");
+
+        String qualifiedMapperName = packageName.isEmpty() ? mapperName : packageName + "." + mapperName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedMapperName, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    // new Impl((String) row[0], ...) - index 는 펼친 프로퍼티(leaf) 순서대로 증가
+    private String newExpression(Node node, int[] index) {
+        StringBuilder expression = new StringBuilder("new ").append(node.className()).append('(');
+        for (int i = 0; i < node.properties.size(); i++) {
+            Property property = node.properties.get(i);
+            expression.append(i == 0 ? "" : ", ");
+            if (property.nested == null) {
+                expression.append('(').append(boxed(property.type)).append(") row[").append(index[0]++).append(']');
+            } else {
+                int from = index[0];
+                String nested = newExpression(property.nested, index);
+                expression.append("study.datajpa.projection.ProjectionMappers.allNull(row, ").append(from).append(", ")
+                        .append(index[0]).append(") ? null : ").append(nested);
+            }
+        }
+        return expression.append(')').toString();
+    }
+
+    private void writeImpls(StringBuilder source, Node node) {
+        if (node.type.getKind() == ElementKind.INTERFACE) {
+            writeImpl(source, node);
+        }
+        for (Property property : node.properties) {
+            if (property.nested != null) {
+                writeImpls(source, property.nested);
+            }
+        }
+    }
+
+    // 인터페이스 구현 - 불변, getter 는 필드 반환, equals/hashCode/toString 은 값 기준
+    private void writeImpl(StringBuilder source, Node node) {
+        String typeName = node.type.getQualifiedName().toString();
+        String className = node.className();
+        List<Property> properties = node.properties;
+
+        source.append("\n    static final class ").append(className).append(" implements ").append(typeName).append(" {\n\n");
+        for (Property property : properties) {
+            source.append("        private final ").append(property.type).append(' ').append(property.name).append(";\n");
+        }
+
+        source.append("\n        ").append(className).append('(');
+        for (int i = 0; i < properties.size(); i++) {
+            source.append(i == 0 ? "" : ", ").append(properties.get(i).type).append(' ').append(properties.get(i).name);
+        }
+        source.append(") {\n");
+        for (Property property : properties) {
+            source.append("            this.").append(property.name).append(" = ").append(property.name).append(";\n");
+        }
+        source.append("        }\n");
+
+        for (Property property : properties) {
+            source.append("\n        @Override\n        public ").append(property.type).append(' ').append(property.getter)
+                    .append("() {\n            return ").append(property.name).append(";\n        }\n");
+        }
+
+        source.append("\n        @Override\n        public boolean equals(Object o) {\n")
+                .append("            if (this == o) return true;\n")
+                .append("            if (o == null || getClass() != o.getClass()) return false;\n")
+                .append("            ").append(className).append(" that = (").append(className).append(") o;\n")
+                .append("            return true");
+        for (Property property : properties) {
+            source.append("\n                    && java.util.Objects.equals(").append(property.name)
+                    .append(", that.").append(property.name).append(')');
+        }
+        source.append(";\n        }\n");
+
+        source.append("\n        @Override\n        public int hashCode() {\n            return java.util.Objects.hash(");
+        for (int i = 0; i < properties.size(); i++) {
+            source.append(i == 0 ? "" : ", ").append(properties.get(i).name);
+        }
+        source.append(");\n        }\n");
+
+        source.append("\n        @Override\n        public String toString() {\n            return \"")
+                .append(node.type.getSimpleName()).append("{\"");
+        for (int i = 0; i < properties.size(); i++) {
+            source.append(" + \"").append(i == 0 ? "" : ", ").append(properties.get(i).name).append("=\" + ")
+                    .append(properties.get(i).name);
+        }
+        source.append(" + \"}\";\n        }\n    }\n");
+    }
+
+    private String boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind()))
+                    .getQualifiedName().toString();
+        }
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    /**
+     * 프로젝션 타입 하나 - 루트 또는 중첩(path = team)
+     */
+    private static class Node {
+
+        private final TypeElement type;
+        private final String path;
+        private final List<Property> properties = new ArrayList<>();
+
+        Node(TypeElement type, String path) {
+            this.type = type;
+            this.path = path;
+        }
+
+        // 루트 인터페이스 Impl, 중첩 Impl_team, 클래스 프로젝션은 자기 자신
+        String className() {
+            if (type.getKind() != ElementKind.INTERFACE) {
+                return type.getQualifiedName().toString();
+            }
+            return path.isEmpty() ? "Impl" : "Impl_" + path.replace('.', '_');
+        }
+
+        void collectLeafPaths(List<String> paths) {
+            for (Property property : properties) {
+                if (property.nested == null) {
+                    paths.add(property.path);
+                } else {
+                    property.nested.collectLeafPaths(paths);
+                }
+            }
+        }
+    }
+
+    private static class Property {
+
+        private final String name;
+        private final String path;
+        private final TypeMirror type;
+        private final String getter;
+        private final Node nested;
+
+        Property(String name, String path, TypeMirror type, String getter, Node nested) {
+            this.name = name;
+            this.path = path;
+            this.type = type;
+            this.getter = getter;
+            this.nested = nested;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package study.datajpa.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 등록일, 수정일(BaseTimeEntity) 이 있는 Member 10만건 persist + flush
+ *
+ * ./gradlew jmh -PjmhInclude=AuditingFlushBenchmark
+ *
+ * -> none : 엔티티마다 LocalDateTime.now()
+ * -> transaction : 트랜잭션당 한번 (AuditingClock)
+ * -> flush : flush(1000건) 마다 한번 - hibernate Interceptor.postFlush 로 비운다
+ * -> transaction + coarseClockMillis : 시계도 CoarseClock 에서
+ *
+ * 트랜잭션 하나에 10만건 - batch_size(1000) 마다 flush, clear
+ * */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AuditingFlushBenchmark {
+
+    private static final int ENTITIES = 100_000;
+    private static final int FLUSH_SIZE = 1_000;
+
+    @Param({"none", "transaction", "flush"})
+    String timestampScope;
+
+    @Param({"0", "10"})
+    long coarseClockMillis;
+
+    ConfigurableApplicationContext context;
+    EntityManager em;
+    TransactionTemplate tx;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = JpaBenchmarkContext.start(
+                "datajpa.auditing.timestamp-scope=" + timestampScope,
+                "datajpa.auditing.coarse-clock-millis=" + coarseClockMillis);
+        em = context.getBean(EntityManager.class);
+        tx = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteMembers() {
+        tx.executeWithoutResult(status -> em.createQuery("delete from Member m").executeUpdate());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int persistAndFlush() {
+        return tx.execute(status -> {
+            for (int i = 0; i < ENTITIES; i++) {
+                em.persist(new Member("jmh-audit" + i, i));
+                if ((i + 1) % FLUSH_SIZE == 0) {
+                    em.flush();
+                    em.clear();
+                }
+            }
+            em.flush();
+            em.clear();
+            return ENTITIES;
+        });
+    }
+}
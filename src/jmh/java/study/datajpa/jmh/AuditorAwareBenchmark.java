@@ -0,0 +1,91 @@
+package study.datajpa.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.annotation.CreatedBy;
+import org.springframework.data.annotation.LastModifiedBy;
+import org.springframework.data.auditing.AuditingHandler;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.mapping.context.PersistentEntities;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.section15_auditing.CachingAuditorAware;
+import study.datajpa.section15_auditing.RandomIds;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 엔티티 하나 저장할때 드는 auditing(등록자, 수정자) 비용 - 32 스레드 동시 저장
+ *
+ * ./gradlew jmh -PjmhInclude=AuditorAwareBenchmark
+ *
+ * 한 invocation = 트랜잭션 하나에서 엔티티 ENTITIES 개 markCreated (AuditingEntityListener.touchForCreate 와 같은 경로)
+ * -> secureRandom : 기존 auditorProvider111 - 엔티티마다 UUID.randomUUID() (SecureRandom 경합)
+ * -> threadLocalRandom : 엔티티마다 RandomIds.uuid()
+ * -> cachedPerTransaction : CachingAuditorAware - 트랜잭션당 한번
+ *
+ * 스프링 컨텍스트, DB 없이 AuditingHandler 만 사용 - 트랜잭션은 synchronization 만 열고 닫는다
+ * */
+@State(Scope.Benchmark)
+@Threads(32)
+public class AuditorAwareBenchmark {
+
+    private static final int ENTITIES = 100;
+
+    final AuditingHandler secureRandom = handler(() -> Optional.of(UUID.randomUUID().toString()));
+    final AuditingHandler threadLocalRandom = handler(() -> Optional.of(RandomIds.uuid().toString()));
+    final AuditingHandler cachedPerTransaction =
+            handler(new CachingAuditorAware<>(() -> Optional.of(RandomIds.uuid().toString())));
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES)
+    public void secureRandom(Blackhole blackhole) {
+        saveAll(secureRandom, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES)
+    public void threadLocalRandom(Blackhole blackhole) {
+        saveAll(threadLocalRandom, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTITIES)
+    public void cachedPerTransaction(Blackhole blackhole) {
+        saveAll(cachedPerTransaction, blackhole);
+    }
+
+    private void saveAll(AuditingHandler handler, Blackhole blackhole) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (int i = 0; i < ENTITIES; i++) {
+                blackhole.consume(handler.markCreated(new AuditedEntity()));
+            }
+        } finally {
+            //커밋 대신 afterCompletion 만 호출 - 캐시된 auditor 정리
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static AuditingHandler handler(AuditorAware<String> auditorAware) {
+        AuditingHandler handler = new AuditingHandler(PersistentEntities.of());
+        handler.setAuditorAware(auditorAware);
+        handler.setDateTimeForNow(false);
+        return handler;
+    }
+
+    // BaseEntity 의 등록자, 수정자 필드만
+    static class AuditedEntity {
+        @CreatedBy
+        String createdBy;
+        @LastModifiedBy
+        String lastModifiedBy;
+    }
+}
@@ -0,0 +1,41 @@
+package study.datajpa.jmh;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JMH 벤치마크용 스프링 컨텍스트 - 웹 서버 없이 JPA 계층만 띄운다
+ *
+ * -> 임베디드(in-memory) H2 를 사용한다 - TCP H2 서버 없이 실행, 네트워크 왕복이 측정에 섞이지 않는다
+ * -> SQL 로그, p6spy 는 끈다 - 로그 출력이 측정값을 덮어버린다
+ * -> 변경 이력(change-log) writer 스레드도 끈다 - 측정 중인 쓰기와 CPU, DB 를 나눠 쓴다
+ * -> 2차 캐시는 끈다 - 조회 방식 비교가 캐시 적중으로 바뀐다 (캐시를 재는 벤치마크는 start(...) 로 다시 켠다)
+ * */
+public abstract class JpaBenchmarkContext {
+
+    private static final String[] DEFAULT_PROPERTIES = {
+            "spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+            "decorator.datasource.enabled=false",
+            "logging.level.org.hibernate.SQL=warn",
+            "logging.level.root=warn",
+            "spring.main.banner-mode=off",
+            "datajpa.query-count.enabled=false",
+            "datajpa.change-log.enabled=false",
+            "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+    };
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        List<String> all = new ArrayList<>(Arrays.asList(DEFAULT_PROPERTIES));
+        all.addAll(Arrays.asList(properties));
+        return new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(all.toArray(new String[0]))
+                .run();
+    }
+}
@@ -0,0 +1,127 @@
+package study.datajpa.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.section1_4_repository.MemberJpaRepository;
+import study.datajpa.section1_4_repository.MemberRepository;
+import study.datajpa.section9_bulk.MemberImportRow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * MemberRepository 쿼리 방식별 비교 - 같은 조건(username 으로 1건)을 방식만 바꿔서 조회
+ *
+ * ./gradlew jmh -PjmhInclude=MemberQueryStyleBenchmark
+ *
+ * 스프링 데이터 JPA
+ * -> derivedQuery : 메서드 이름으로 쿼리 생성 (findByUsernameAndAgeGreaterThan)
+ * -> jpqlQuery : @Query (findUser)
+ * -> namedQuery : @NamedQuery (Member.findByUsername)
+ * -> nativeQuery : @Query(nativeQuery = true) (findByNativeQuery)
+ * 순수 JPA (MemberJpaRepository)
+ * -> emJpqlQuery, emNamedQuery, emFind
+ *
+ * 모든 방식을 readOnly 트랜잭션 안에서 실행한다 - MemberJpaRepository 는 @Transactional 이 없다
+ * */
+@State(Scope.Benchmark)
+public class MemberQueryStyleBenchmark {
+
+    private static final String TEAM_NAME = "jmh-team";
+
+    @Param({"10000"})
+    int memberCount;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    MemberJpaRepository memberJpaRepository;
+    TransactionTemplate readOnly;
+
+    String[] usernames;
+    Long[] ids;
+    int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = JpaBenchmarkContext.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        Map<String, Long> teamIds = memberRepository.resolveTeamIds(Set.of(TEAM_NAME));
+        List<MemberImportRow> rows = new ArrayList<>(memberCount);
+        usernames = new String[memberCount];
+        for (int i = 0; i < memberCount; i++) {
+            usernames[i] = "jmh-member" + i;
+            rows.add(new MemberImportRow(usernames[i], 20 + i % 50, TEAM_NAME));
+        }
+        memberRepository.insertMembers(rows, teamIds);
+        ids = memberRepository.findMemberIds(PageRequest.of(0, memberCount)).getContent().toArray(new Long[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // 매번 다른 회원을 조회 - 한 건만 반복하면 캐시 효과만 재게 된다
+    private int next() {
+        cursor = (cursor + 1) % memberCount;
+        return cursor;
+    }
+
+    @Benchmark
+    public List<Member> derivedQuery() {
+        String username = usernames[next()];
+        return readOnly.execute(status -> memberRepository.findByUsernameAndAgeGreaterThan(username, 10));
+    }
+
+    @Benchmark
+    public List<Member> jpqlQuery() {
+        int i = next();
+        return readOnly.execute(status -> memberRepository.findUser(usernames[i], 20 + i % 50));
+    }
+
+    @Benchmark
+    public List<Member> namedQuery() {
+        String username = usernames[next()];
+        return readOnly.execute(status -> memberRepository.findByUsername(username));
+    }
+
+    @Benchmark
+    public Member nativeQuery() {
+        String username = usernames[next()];
+        return readOnly.execute(status -> memberRepository.findByNativeQuery(username));
+    }
+
+    @Benchmark
+    public List<Member> emJpqlQuery() {
+        String username = usernames[next()];
+        return readOnly.execute(status -> memberJpaRepository.findByUsernameAndAgeGreaterThen(username, 10));
+    }
+
+    @Benchmark
+    public List<Member> emNamedQuery() {
+        String username = usernames[next()];
+        return readOnly.execute(status -> memberJpaRepository.findByUsername(username));
+    }
+
+    @Benchmark
+    public Member emFind() {
+        Long id = ids[next()];
+        return readOnly.execute(status -> memberJpaRepository.find(id));
+    }
+}
@@ -0,0 +1,132 @@
+package study.datajpa.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.projection.ProjectionMapper;
+import study.datajpa.projection.ProjectionMappers;
+import study.datajpa.section1_4_repository.MemberRepository;
+import study.datajpa.section7_other_features.NestedClosedProjections;
+import study.datajpa.section7_other_features.UsernameOnly;
+import study.datajpa.section7_other_features.UsernameOnlyDto;
+import study.datajpa.section9_bulk.MemberImportRow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 스프링 데이터 JPA 프로젝션(프록시, reflection) vs 생성된 매퍼(@GenerateMapper)
+ *
+ * ./gradlew jmh -PjmhInclude=ProjectionMapperBenchmark
+ *
+ * 매핑만 (DB 없이 row 1건 변환)
+ * -> proxyMapping : ProjectionFactory 가 Map 을 감싼 프록시 생성 (스프링 데이터가 인터페이스 프로젝션에 쓰는 방식)
+ * -> generatedMapping : 생성된 매퍼 map(row)
+ * 리포지토리 조회 (같은 username 회원 ROWS 명)
+ * -> proxyQuery / dynamicClassQuery : findProjectionByUsername / findProjectionClassTypeByUsername
+ * -> generatedQuery / generatedClassQuery : findMappedByUsername
+ * 중첩 프로젝션 (팀이 있는 회원)
+ * -> springNestedQuery : 스프링 데이터 JPA - Team 엔티티 전체를 조회해서 감싼다
+ * -> generatedNestedQuery : select m.username, t.name 만
+ * */
+@State(Scope.Benchmark)
+public class ProjectionMapperBenchmark {
+
+    private static final String USERNAME = "jmh-projection";
+    private static final String TEAM_NAME = "jmh-projection-team";
+    private static final int ROWS = 100;
+
+    ConfigurableApplicationContext context;
+    MemberRepository memberRepository;
+    TransactionTemplate readOnly;
+
+    final SpelAwareProxyProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+    final ProjectionMapper<UsernameOnly> mapper = ProjectionMappers.get(UsernameOnly.class);
+    final Map<String, Object> tuple = Map.of("username", USERNAME);
+    final Object[] row = {USERNAME};
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = JpaBenchmarkContext.start();
+        memberRepository = context.getBean(MemberRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        List<MemberImportRow> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new MemberImportRow(USERNAME, i, TEAM_NAME));
+        }
+        memberRepository.insertMembers(rows, memberRepository.resolveTeamIds(Set.of(TEAM_NAME)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String proxyMapping() {
+        return projectionFactory.createProjection(UsernameOnly.class, tuple).getUsername();
+    }
+
+    @Benchmark
+    public String generatedMapping() {
+        return mapper.map(row).getUsername();
+    }
+
+    @Benchmark
+    public List<UsernameOnly> proxyQuery() {
+        return readOnly.execute(status -> touch(memberRepository.findProjectionByUsername(USERNAME)));
+    }
+
+    @Benchmark
+    public List<UsernameOnly> generatedQuery() {
+        return readOnly.execute(status -> touch(memberRepository.findMappedByUsername(USERNAME, UsernameOnly.class)));
+    }
+
+    @Benchmark
+    public List<UsernameOnlyDto> dynamicClassQuery() {
+        return readOnly.execute(status -> memberRepository.findProjectionClassTypeByUsername(USERNAME, UsernameOnlyDto.class));
+    }
+
+    @Benchmark
+    public List<UsernameOnlyDto> generatedClassQuery() {
+        return readOnly.execute(status -> memberRepository.findMappedByUsername(USERNAME, UsernameOnlyDto.class));
+    }
+
+    @Benchmark
+    public List<NestedClosedProjections> springNestedQuery() {
+        return readOnly.execute(status ->
+                touchNested(memberRepository.findProjectionClassTypeByUsername(USERNAME, NestedClosedProjections.class)));
+    }
+
+    @Benchmark
+    public List<NestedClosedProjections> generatedNestedQuery() {
+        return readOnly.execute(status ->
+                touchNested(memberRepository.findMappedByUsername(USERNAME, NestedClosedProjections.class)));
+    }
+
+    private List<NestedClosedProjections> touchNested(List<NestedClosedProjections> result) {
+        for (NestedClosedProjections projection : result) {
+            projection.getTeam().getName();
+        }
+        return result;
+    }
+
+    // 프록시는 getter 호출 비용도 있다 - 엔드포인트에서 JSON 으로 만들때처럼 값을 한번씩 읽는다
+    private List<UsernameOnly> touch(List<UsernameOnly> result) {
+        for (UsernameOnly projection : result) {
+            projection.getUsername();
+        }
+        return result;
+    }
+}
@@ -6,9 +6,10 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import study.datajpa.section15_auditing.CachingAuditorAware;
+import study.datajpa.section15_auditing.RandomIds;
 
 import java.util.Optional;
-import java.util.UUID;
 
 /**
  * JavaConfig 설정- 스프링 부트 사용시 생략 가능
@@ -26,7 +27,8 @@ import java.util.UUID;
  *
  * */
 //@EnableJpaAuditing(modifyOnCreate = false) - update 는 null로 들어간다
-@EnableJpaAuditing
+//등록일, 수정일은 트랜잭션 단위로 같은 시각 - AuditingClockConfig
+@EnableJpaAuditing(dateTimeProviderRef = "batchDateTimeProvider")
 @SpringBootApplication
 //@EnableJpaRepositories(basePackages = "study.data-jpa.repository")
 public class DataJpaApplication {
@@ -40,13 +42,9 @@ public class DataJpaApplication {
 	@Bean
 	public AuditorAware<String> auditorProvider111(){
 		//실무에서는 세션 정보나, 스프링 시큐리티 로그인 정보에서 ID를 받음 - 현재는 UUID를 임의로 사용
-		return new AuditorAware<String>() {
-			@Override
-			public Optional<String> getCurrentAuditor() {
-				return Optional.of(UUID.randomUUID().toString());
-			}
-		};
-		//인터페이스에서 메서드 하나면 람다로 바꿀수있다
+		//UUID.randomUUID() 는 SecureRandom 공유 -> 스레드별 난수(RandomIds), 트랜잭션/요청 마다 한번만 구한다
+		return new CachingAuditorAware<>(() -> Optional.of(RandomIds.uuid().toString()));
+		//캐시 없이 매번 - 인터페이스에서 메서드 하나면 람다로 바꿀수있다
 //		return () -> Optional.of(UUID.randomUUID().toString());
 	}
 }
@@ -3,6 +3,7 @@ package study.datajpa.entity;
 
 import lombok.Getter;
 import lombok.Setter;
+import study.datajpa.section15_auditing.AuditingClock;
 
 import javax.persistence.Column;
 import javax.persistence.MappedSuperclass;
@@ -24,13 +25,13 @@ public class JpaBaseEntityAuditing {
 
     @PrePersist // 영속성 전에 실행
     public void prePersist(){
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = AuditingClock.now(); // 트랜잭션(flush) 안에서는 같은 시각 - LocalDateTime.now() 대신
         createdDate = now;
         updateDate = now; // 데이터를 넣어야 쿼리할때 편하다 ~ null있으면 불편~
     }
 
     @PreUpdate
     public void preUpdate(){
-        updateDate = LocalDateTime.now();
+        updateDate = AuditingClock.now();
     }
 }
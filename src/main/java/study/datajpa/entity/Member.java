@@ -1,6 +1,12 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import study.datajpa.section16_changelog.ChangeLogListener;
 
 import javax.persistence.*;
 
@@ -11,6 +17,11 @@ import javax.persistence.*;
         name = "Member.findByUsername",
         query = "select m from Member m where m.username = :username "
         )
+// keyset 페이징 - (username, member_id) 순서로 seek 할수 있게 인덱스 추가
+@Table(indexes = @Index(name = "idx_member_username_id", columnList = "username, member_id"))
+@EntityListeners({WriteVersionListener.class, ChangeLogListener.class}) // 변경시 Member 버전 증가 - count 캐시 무효화, 변경 이력
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 2차 캐시 - findById, em.find
 @Entity
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED) // 기본생성자 protected level 까지만 가능
@@ -18,8 +29,10 @@ import javax.persistence.*;
 //public class Member extends JpaBaseEntityAuditing{
 public class Member extends BaseTimeEntity{
 
-    @Id
-    @GeneratedValue
+    @Id //엔티티별 시퀀스 + pooled-lo (PooledLoSequenceGenerator)
+    @GeneratedValue(generator = "member_seq_generator")
+    @GenericGenerator(name = "member_seq_generator", strategy = "study.datajpa.entity.PooledLoSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "member_seq"))
     @Column(name = "member_id")
     private Long id;
 
@@ -54,8 +67,9 @@ public class Member extends BaseTimeEntity{
     }
 
     // =======연관관계 편의 메서드 ============
+    // -> team.getMembers().add(this) 는 팀원 컬렉션 로딩이 필요할수 있어 Team.addMember 로 위임
     public void changeTeam(Team team){
         this.team = team;
-        team.getMembers().add(this);
+        team.addMember(this);
     }
 }
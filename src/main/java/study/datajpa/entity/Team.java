@@ -1,25 +1,44 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.LazyCollection;
+import org.hibernate.annotations.LazyCollectionOption;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.collection.internal.AbstractPersistentCollection;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import study.datajpa.section16_changelog.ChangeLogListener;
 
 import javax.persistence.*;
 import java.util.ArrayList;
 import java.util.List;
 
+@EntityListeners({WriteVersionListener.class, ChangeLogListener.class}) // 변경시 Team 버전 증가 - 결과 캐시 무효화, 변경 이력
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 2차 캐시 - 거의 바뀌지 않는 참조 데이터
 @Entity
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id","name"})
 public class Team {
 
-    @Id
-    @GeneratedValue
+    @Id //엔티티별 시퀀스 + pooled-lo (PooledLoSequenceGenerator)
+    @GeneratedValue(generator = "team_seq_generator")
+    @GenericGenerator(name = "team_seq_generator", strategy = "study.datajpa.entity.PooledLoSequenceGenerator",
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "team_seq"))
     @Column(name = "team_id")
     private Long id;
 
     private String name;
 
+    //EXTRA - size(), contains() 등은 컬렉션 전체를 로딩하지 않고 쿼리(count 등)로 처리
     @OneToMany(mappedBy = "team")
+    @LazyCollection(LazyCollectionOption.EXTRA)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 팀원 id 목록 캐시 - JDBC 로 회원을 넣으면 직접 evict (MemberBulkImportRepositoryImpl)
     private List<Member> members = new ArrayList<>();
 
     public Team(String name) {
@@ -31,4 +50,28 @@ public class Team {
 
     }
 
+    /**
+     * 연관관계 편의 메서드 - Member.changeTeam 에서 호출
+     *
+     * members.add() 를 그냥 호출하면 팀원이 많을때 컬렉션 로딩 비용이 크고, 준영속이면 LazyInitializationException
+     * -> 이미 로딩된 컬렉션 : 그대로 추가
+     * -> 로딩 안된 컬렉션 + 영속 상태 : mappedBy 쪽 bag 은 add 를 로딩 없이 queue 에 쌓아두고 나중에 로딩될때 합쳐준다
+     *    (컬렉션 로딩은 flush 하지 않는다 - queue 가 없으면 같은 트랜잭션에서 방금 추가한 회원이 안보인다)
+     * -> 로딩 안된 컬렉션 + 준영속 : 추가하지 않는다 - 나중에 로딩하면 DB 에서 읽어온다 (FK 는 Member.team 이 관리)
+     */
+    public void addMember(Member member){
+        if (Hibernate.isInitialized(members) || isConnectedLazyCollection()) {
+            members.add(member);
+        }
+    }
+
+    // 세션에 연결된 지연 컬렉션인지 - hibernate 5 의 컬렉션 구현체 (AbstractPersistentCollection) 기준
+    private boolean isConnectedLazyCollection(){
+        if (!(members instanceof AbstractPersistentCollection)) {
+            return false;
+        }
+        SharedSessionContractImplementor session = ((AbstractPersistentCollection) members).getSession();
+        return session != null && session.isOpen();
+    }
+
 }
@@ -0,0 +1,71 @@
+package study.datajpa.entity;
+
+import study.datajpa.support.TransactionScoped;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 엔티티 타입별 변경 버전
+ *
+ * 저장, 수정, 삭제 될때마다 해당 엔티티 타입의 버전을 1 올린다
+ * -> 캐시는 값을 만들때의 버전을 같이 저장하고, 버전이 달라지면 버린다 (count 캐시, 리포지토리 결과 캐시 등)
+ *
+ * 트랜잭션 안의 변경은 커밋(롤백) 후에 한번 더 올린다
+ * -> 변경 직후 ~ 커밋 사이에 (아직 커밋 안된 값으로) 다시 만든 캐시 값도 버려진다
+ *
+ * JPA 엔티티 리스너는 스프링 빈이 아니어도 되도록 static 으로 관리한다
+ * -> @EntityListeners(WriteVersionListener.class) 를 붙인 엔티티만 추적된다
+ * -> 벌크 연산, JDBC 직접 insert 는 리스너를 거치지 않으므로 bump() 를 직접 호출해야 한다
+ * */
+public class WriteVersionListener {
+
+    private static final ConcurrentMap<Class<?>, AtomicLong> VERSIONS = new ConcurrentHashMap<>();
+    // 이번 트랜잭션에서 변경한 엔티티 타입 - 트랜잭션이 끝나면 한번 더 bump
+    private static final TransactionScoped<Set<Class<?>>> WRITTEN =
+            new TransactionScoped<>(HashSet::new, (types, status) -> types.forEach(WriteVersionListener::bump));
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        bumpTransactional(entity.getClass());
+    }
+
+    public static long current(Class<?> entityType) {
+        return counter(entityType).get();
+    }
+
+    public static void bump(Class<?> entityType) {
+        counter(entityType).incrementAndGet();
+    }
+
+    /**
+     * 지금 한번, 트랜잭션이 끝나면(커밋, 롤백) 한번 더 - 트랜잭션 밖이면 bump() 와 같다
+     */
+    public static void bumpTransactional(Class<?> entityType) {
+        bump(entityType);
+        Set<Class<?>> written = WRITTEN.get();
+        if (written != null) {
+            written.add(entityType);
+        }
+    }
+
+    /**
+     * 지금 트랜잭션에서 변경한 타입인지 - 커밋 안된 값이 캐시에 올라가지 않게 확인
+     */
+    public static boolean isWrittenInCurrentTransaction(Class<?> entityType) {
+        Set<Class<?>> written = WRITTEN.find();
+        return written != null && written.contains(entityType);
+    }
+
+    private static AtomicLong counter(Class<?> entityType) {
+        return VERSIONS.computeIfAbsent(entityType, type -> new AtomicLong());
+    }
+}
@@ -0,0 +1,70 @@
+package study.datajpa.section10_monitoring;
+
+import lombok.Getter;
+
+/**
+ * 한 요청(또는 테스트) 동안 실행된 SQL 수
+ * -> 한 스레드에서만 사용한다 (QueryCounter 의 ThreadLocal)
+ * */
+@Getter
+public class QueryCount {
+
+    private int select;
+    private int insert;
+    private int update;
+    private int delete;
+    private int other;
+
+    void record(String sql) {
+        String keyword = firstKeyword(sql);
+        switch (keyword) {
+            case "select":
+            case "with":
+                select++;
+                break;
+            case "insert":
+                insert++;
+                break;
+            case "update":
+                update++;
+                break;
+            case "delete":
+                delete++;
+                break;
+            default:
+                other++;
+        }
+    }
+
+    public int getTotal() {
+        return select + insert + update + delete + other;
+    }
+
+    //주석(/* ... */), 공백을 건너뛰고 첫 단어만 소문자로
+    private static String firstKeyword(String sql) {
+        int i = 0;
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c) || c == '(') {
+                i++;
+            } else if (sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else {
+                break;
+            }
+        }
+        int start = i;
+        while (i < length && Character.isLetter(sql.charAt(i))) {
+            i++;
+        }
+        return sql.substring(start, i).toLowerCase();
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCount{total=" + getTotal() + ", select=" + select + ", insert=" + insert +
+                ", update=" + update + ", delete=" + delete + ", other=" + other + "}";
+    }
+}
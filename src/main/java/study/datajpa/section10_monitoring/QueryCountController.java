@@ -0,0 +1,17 @@
+package study.datajpa.section10_monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class QueryCountController {
+
+    private final QueryCountMetrics queryCountMetrics;
+
+    @GetMapping("/monitoring/query-count")
+    public QueryCountMetrics queryCount(){
+        return queryCountMetrics;
+    }
+}
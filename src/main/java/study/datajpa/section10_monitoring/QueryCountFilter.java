@@ -0,0 +1,46 @@
+package study.datajpa.section10_monitoring;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * HTTP 요청 하나에서 실행된 SQL 수를 센다
+ *
+ * -> 기준(datajpa.query-count.warn-threshold)을 넘으면 warn 로그 + QueryCountMetrics 카운트 증가
+ * -> N + 1 이 생긴 API 를 운영에서 찾기 위한 용도
+ * -> OSIV(open-in-view) 기본값 true - 응답 JSON 변환 중 지연로딩 SQL 도 이 필터 안에서 실행되므로 같이 센다
+ * */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datajpa.query-count.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final QueryCountMetrics queryCountMetrics;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCount count = QueryCounter.stop();
+            if (queryCountMetrics.record(count)) {
+                log.warn("too many statements for one request. {} {} -> {} (threshold = {})",
+                        request.getMethod(), request.getRequestURI(), count, queryCountMetrics.getWarnThreshold());
+            } else {
+                log.debug("{} {} -> {}", request.getMethod(), request.getRequestURI(), count);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package study.datajpa.section10_monitoring;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * hibernate 가 JDBC 로 SQL 을 보내기 직전에 호출된다 - SQL 은 그대로 돌려준다
+ *
+ * 등록 - application.yml
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector: study.datajpa.section10_monitoring.QueryCountInspector
+ *
+ * > 참고: hibernate 를 거치지 않는 JdbcTemplate SQL(bulk import 등)은 세지 않는다
+ * > 참고: JDBC batch 는 PreparedStatement 하나로 보내므로 1번으로 센다
+ * */
+public class QueryCountInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounter.record(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,57 @@
+package study.datajpa.section10_monitoring;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 요청별 SQL 수 통계 - /monitoring/query-count 로 확인
+ * */
+@Component
+public class QueryCountMetrics {
+
+    @Getter
+    private final int warnThreshold;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong statements = new AtomicLong();
+    private final AtomicLong overThresholdRequests = new AtomicLong();
+    private final AtomicLong maxStatementsPerRequest = new AtomicLong();
+
+    public QueryCountMetrics(@Value("${datajpa.query-count.warn-threshold:10}") int warnThreshold) {
+        this.warnThreshold = warnThreshold;
+    }
+
+    /**
+     * @return 기준(warnThreshold)을 넘었으면 true
+     */
+    public boolean record(QueryCount count) {
+        int total = count.getTotal();
+        requests.incrementAndGet();
+        statements.addAndGet(total);
+        maxStatementsPerRequest.accumulateAndGet(total, Math::max);
+        if (total > warnThreshold) {
+            overThresholdRequests.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getStatements() {
+        return statements.get();
+    }
+
+    public long getOverThresholdRequests() {
+        return overThresholdRequests.get();
+    }
+
+    public long getMaxStatementsPerRequest() {
+        return maxStatementsPerRequest.get();
+    }
+}
@@ -0,0 +1,37 @@
+package study.datajpa.section10_monitoring;
+
+/**
+ * 현재 스레드의 SQL 수 집계
+ *
+ * start() ~ stop() 사이에 QueryCountInspector 로 들어온 SQL 을 센다
+ * -> HTTP 요청 : QueryCountFilter
+ * -> 테스트 : QueryCountExtension (src/test)
+ * -> 시작하지 않은 스레드의 SQL 은 세지 않는다 (별도 스레드의 count 쿼리, export 스트림 등)
+ * */
+public abstract class QueryCounter {
+
+    private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<>();
+
+    public static QueryCount start() {
+        QueryCount count = new QueryCount();
+        CURRENT.set(count);
+        return count;
+    }
+
+    public static QueryCount current() {
+        return CURRENT.get();
+    }
+
+    public static QueryCount stop() {
+        QueryCount count = CURRENT.get();
+        CURRENT.remove();
+        return count;
+    }
+
+    static void record(String sql) {
+        QueryCount count = CURRENT.get();
+        if (count != null) {
+            count.record(sql);
+        }
+    }
+}
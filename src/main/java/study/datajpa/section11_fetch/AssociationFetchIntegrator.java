@@ -0,0 +1,86 @@
+package study.datajpa.section11_fetch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.mapping.Collection;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.mapping.Property;
+import org.hibernate.mapping.ToOne;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+import java.util.Map;
+
+/**
+ * datajpa.fetch.associations 설정을 매핑 정보에 반영
+ *
+ * 엔티티에 @BatchSize, @Fetch(FetchMode.SUBSELECT) 를 붙이는 것과 같은 효과인데 yml 로 바꿀수 있다
+ * -> Integrator 는 SessionFactory 생성중 persister 를 만들기 전에 호출되므로 여기서 바꾼 값이 persister 에 들어간다
+ *
+ * 컬렉션(Team.members) : 컬렉션 매핑의 batch size / subselect 를 바꾼다
+ * ToOne(Member.team) : 프록시 초기화 batch 는 대상 엔티티(Team)의 batch size 를 따른다
+ * -> Member.team 설정은 Team 을 가리키는 모든 프록시에 적용된다, SUBSELECT 는 컬렉션만 가능
+ * */
+@Slf4j
+public class AssociationFetchIntegrator implements Integrator {
+
+    private final FetchProperties properties;
+
+    public AssociationFetchIntegrator(FetchProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        for (Map.Entry<String, FetchProperties.Association> entry : properties.getAssociations().entrySet()) {
+            apply(metadata, entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    private void apply(Metadata metadata, String path, FetchProperties.Association association) {
+        int dot = path.lastIndexOf('.');
+        if (dot <= 0 || dot == path.length() - 1) {
+            throw new IllegalArgumentException("datajpa.fetch.associations 의 key 는 '엔티티명.필드명' 이어야 합니다: " + path);
+        }
+        PersistentClass owner = findEntity(metadata, path.substring(0, dot));
+        Property property = owner.getProperty(path.substring(dot + 1));
+
+        if (property.getValue() instanceof Collection) {
+            Collection collection = (Collection) property.getValue();
+            collection.setSubselectLoadable(association.getStrategy() == FetchStrategy.SUBSELECT);
+            collection.setBatchSize(batchSize(association));
+        } else if (property.getValue() instanceof ToOne) {
+            if (association.getStrategy() == FetchStrategy.SUBSELECT) {
+                throw new IllegalArgumentException("SUBSELECT 는 컬렉션 연관관계만 가능합니다: " + path);
+            }
+            String target = ((ToOne) property.getValue()).getReferencedEntityName();
+            metadata.getEntityBinding(target).setBatchSize(batchSize(association));
+        } else {
+            throw new IllegalArgumentException("연관관계 필드가 아닙니다: " + path);
+        }
+        log.info("association fetch {} -> {}, batchSize={}", path, association.getStrategy(), batchSize(association));
+    }
+
+    // SELECT 는 1 (default_batch_fetch_size 무시), 0 이면 -1 -> hibernate 가 default_batch_fetch_size 사용
+    private int batchSize(FetchProperties.Association association) {
+        if (association.getStrategy() == FetchStrategy.SELECT) {
+            return 1;
+        }
+        return association.getBatchSize() > 0 ? association.getBatchSize() : -1;
+    }
+
+    private PersistentClass findEntity(Metadata metadata, String entityName) {
+        for (PersistentClass entity : metadata.getEntityBindings()) {
+            if (entityName.equals(entity.getJpaEntityName()) || entityName.equals(entity.getEntityName())) {
+                return entity;
+            }
+        }
+        throw new IllegalArgumentException("엔티티를 찾을수 없습니다: " + entityName);
+    }
+}
@@ -0,0 +1,35 @@
+package study.datajpa.section11_fetch;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * datajpa.fetch.* 설정을 hibernate 설정으로 넘긴다
+ *
+ * -> default-batch-size : hibernate.default_batch_fetch_size
+ * -> associations : AssociationFetchIntegrator (hibernate.integrator_provider)
+ * */
+@Configuration
+@EnableConfigurationProperties(FetchProperties.class)
+public class FetchConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer associationFetchCustomizer(FetchProperties fetchProperties) {
+        return hibernateProperties -> {
+            if (fetchProperties.getDefaultBatchSize() > 0) {
+                hibernateProperties.put(AvailableSettings.DEFAULT_BATCH_FETCH_SIZE,
+                        String.valueOf(fetchProperties.getDefaultBatchSize()));
+            }
+            if (!fetchProperties.getAssociations().isEmpty()) {
+                hibernateProperties.put("hibernate.integrator_provider",
+                        (IntegratorProvider) () -> List.of(new AssociationFetchIntegrator(fetchProperties)));
+            }
+        };
+    }
+}
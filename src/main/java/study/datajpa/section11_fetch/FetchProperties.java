@@ -0,0 +1,43 @@
+package study.datajpa.section11_fetch;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * datajpa.fetch.* - 지연 로딩 연관관계 fetch 설정
+ *
+ * datajpa:
+ *   fetch:
+ *     default-batch-size: 100          # 전체 기본값 (hibernate.default_batch_fetch_size), 0 이면 설정 안함
+ *     associations:
+ *       "[Team.members]":
+ *         strategy: subselect
+ *       "[Member.team]":
+ *         strategy: batch
+ *         batch-size: 50
+ *
+ * -> key 는 "엔티티명.필드명" - 점(.)이 들어가므로 yml 에서는 "[...]" 로 감싸야 한다
+ * */
+@Getter
+@Setter
+@ConfigurationProperties("datajpa.fetch")
+public class FetchProperties {
+
+    private int defaultBatchSize;
+
+    private Map<String, Association> associations = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Association {
+
+        private FetchStrategy strategy = FetchStrategy.BATCH;
+
+        // BATCH 일때 한번에 초기화할 개수 - 0 이면 default-batch-size 사용
+        private int batchSize;
+    }
+}
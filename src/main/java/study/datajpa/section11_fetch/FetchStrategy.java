@@ -0,0 +1,19 @@
+package study.datajpa.section11_fetch;
+
+/**
+ * 지연 로딩 연관관계를 초기화할때 쿼리를 어떻게 날릴지
+ *
+ * -> 페치 조인, @EntityGraph 는 쿼리(JPQL) 단위로 정하는 것이고 여기는 매핑(연관관계) 단위 설정
+ * */
+public enum FetchStrategy {
+
+    // 프록시/컬렉션 하나 초기화할때마다 select 1번 (N + 1) - default_batch_fetch_size 도 무시
+    SELECT,
+
+    // 영속성 컨텍스트에 있는 초기화 안된 프록시/컬렉션을 batchSize 개씩 where id in (...) 으로 같이 초기화
+    BATCH,
+
+    // 컬렉션 전용 - 처음 조회했던 쿼리를 서브쿼리로 다시 사용해서 나머지 컬렉션 전부를 한번에 초기화
+    // where member.team_id in (select team_id from team where ...)
+    SUBSELECT
+}
@@ -0,0 +1,74 @@
+package study.datajpa.section12_projection;
+
+import study.datajpa.projection.ProjectionMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 생성된 프로젝션 매퍼(ProjectionMapper)로 JPQL 조회
+ *
+ * 스프링 데이터 JPA 프로젝션
+ * -> 인터페이스 : 조회 결과(Tuple)를 Map 으로 감싼 JDK 동적 프록시 - getter 호출마다 프록시 + Map 조회
+ * -> 동적 프로젝션(Class<T>) : 호출마다 생성자를 reflection 으로 찾는다
+ * -> 중첩 프로젝션(getTeam().getName()) : 루트만 select 최적화 - 중첩은 Team 엔티티 전체를 조회해서 감싼다
+ *
+ * 여기서는
+ * -> select 절 : 매퍼의 properties() 로 필요한 컬럼만 (m.username, t1.name)
+ * -> 중첩 경로(team.name) 는 left join 으로 - 연관관계가 없으면 중첩 프로젝션은 null
+ * -> 결과 : Object[] row 를 매퍼가 생성자 호출로 바로 변환 (프록시, Map, 영속성 컨텍스트 없음)
+ * */
+public abstract class ProjectionQueries {
+
+    /**
+     * select m.username, t1.name from Member m left join m.team t1
+     * -> 같은 연관관계 경로는 조인 한번만 (team.name, team.id -> t1 하나)
+     */
+    public static String selectFrom(String entityName, String alias, ProjectionMapper<?> mapper) {
+        Map<String, String> joins = new LinkedHashMap<>(); // 경로(team) -> 조인 alias(t1)
+        StringBuilder select = new StringBuilder("select ");
+        List<String> properties = mapper.properties();
+        for (int i = 0; i < properties.size(); i++) {
+            String property = properties.get(i);
+            int dot = property.lastIndexOf('.');
+            String owner = dot < 0 ? alias : joinAlias(property.substring(0, dot), alias, joins);
+            select.append(i == 0 ? "" : ", ").append(owner).append('.').append(property.substring(dot + 1));
+        }
+
+        select.append(" from ").append(entityName).append(' ').append(alias);
+        for (Map.Entry<String, String> join : joins.entrySet()) {
+            String path = join.getKey();
+            int dot = path.lastIndexOf('.');
+            String parent = dot < 0 ? alias : joins.get(path.substring(0, dot));
+            select.append(" left join ").append(parent).append('.').append(path.substring(dot + 1))
+                    .append(' ').append(join.getValue());
+        }
+        return select.toString();
+    }
+
+    // team.owner -> team 조인을 먼저 등록해야 team.owner 가 부모 alias 를 찾는다
+    private static String joinAlias(String path, String rootAlias, Map<String, String> joins) {
+        String joinAlias = joins.get(path);
+        if (joinAlias != null) {
+            return joinAlias;
+        }
+        int dot = path.lastIndexOf('.');
+        if (dot >= 0) {
+            joinAlias(path.substring(0, dot), rootAlias, joins);
+        }
+        joinAlias = rootAlias + "_j" + (joins.size() + 1);
+        joins.put(path, joinAlias);
+        return joinAlias;
+    }
+
+    // select 항목이 하나면 JPA 는 Object[] 가 아니라 값 자체를 반환한다
+    public static <T> List<T> map(List<?> rows, ProjectionMapper<T> mapper) {
+        List<T> result = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            result.add(mapper.map(row instanceof Object[] ? (Object[]) row : new Object[]{row}));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,66 @@
+package study.datajpa.section13_specification;
+
+import org.springframework.util.StringUtils;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+
+/**
+ * 회원 검색 조건 - QuerySpec 버전 (MemberSpec 과 같은 조건)
+ *
+ * 값이 비어 있으면 none() - 조건에서 빠진다 (shape 에서도 빠진다)
+ * */
+public abstract class MemberQuerySpecs {
+
+    public static QuerySpec<Member> username(String username) {
+        if (!StringUtils.hasText(username)) {
+            return QuerySpec.none();
+        }
+        return QuerySpec.where("Member.username",
+                (root, query, cb, params) -> cb.equal(root.get("username"), params.get(0)), username);
+    }
+
+    public static QuerySpec<Member> teamName(String teamName) {
+        if (!StringUtils.hasText(teamName)) {
+            return QuerySpec.none();
+        }
+        return QuerySpec.where("Member.teamName", (root, query, cb, params) -> {
+            Join<Member, Team> team = SpecJoins.join(root, "team", JoinType.INNER);
+            return cb.equal(team.get("name"), params.get(0));
+        }, teamName);
+    }
+
+    public static QuerySpec<Member> teamNameLike(String prefix) {
+        if (!StringUtils.hasText(prefix)) {
+            return QuerySpec.none();
+        }
+        return QuerySpec.where("Member.teamNameLike", (root, query, cb, params) -> {
+            Join<Member, Team> team = SpecJoins.join(root, "team", JoinType.INNER);
+            return cb.like(team.<String>get("name"), params.<String>get(0));
+        }, prefix + "%");
+    }
+
+    public static QuerySpec<Member> ageGoe(Integer age) {
+        if (age == null) {
+            return QuerySpec.none();
+        }
+        return QuerySpec.where("Member.ageGoe",
+                (root, query, cb, params) -> cb.greaterThanOrEqualTo(root.<Integer>get("age"), params.<Integer>get(0)), age);
+    }
+
+    // 조건 없이 team 페치 조인만 - count/exists 쿼리에서는 SpecJoins.fetch 가 페치 조인을 만들지 않는다
+    public static QuerySpec<Member> fetchTeam() {
+        return QuerySpec.where("Member.fetchTeam", (root, query, cb, params) -> {
+            SpecJoins.fetch(root, query, "team", JoinType.LEFT);
+            return null;
+        });
+    }
+
+    public static QuerySpec<Member> search(MemberSearchCondition condition) {
+        return username(condition.getUsername())
+                .and(teamName(condition.getTeamName()))
+                .and(ageGoe(condition.getAgeGoe()));
+    }
+}
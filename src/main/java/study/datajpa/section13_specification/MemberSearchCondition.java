@@ -0,0 +1,15 @@
+package study.datajpa.section13_specification;
+
+import lombok.Data;
+
+/**
+ * 회원 검색 조건 - 값이 없는 조건은 빠진다
+ * -> /members/search?username=member1&teamName=teamA&ageGoe=10
+ * */
+@Data
+public class MemberSearchCondition {
+
+    private String username;
+    private String teamName;
+    private Integer ageGoe;
+}
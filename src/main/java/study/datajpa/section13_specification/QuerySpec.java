@@ -0,0 +1,265 @@
+package study.datajpa.section13_specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 모양(shape)과 파라미터 값을 분리한 Specification
+ *
+ * Specification 은 값이 predicate 안에 들어가 있어서 호출마다 Criteria 트리를 새로 만들어야 한다
+ * QuerySpec 은
+ * -> shape : 어떤 조건이 어떤 구조(and/or/not)로 묶였는지 - "and(Member.username,Member.teamName)"
+ * -> values : 조건 값 - shape 순서대로
+ * -> predicate 는 값 대신 파라미터(:p0, :p1 ...)로 만든다
+ *
+ * 그래서 shape 가 같으면 JPQL 이 같다 - SpecificationQueryExecutor 가 shape 별로 JPQL 을 캐시하고 값만 바인딩
+ *
+ * 조건 key 는 predicate 모양을 대표해야 한다 - 같은 key 에 다른 predicate 를 쓰면 안된다
+ * */
+public abstract class QuerySpec<T> {
+
+    /**
+     * 조건 하나의 predicate - 값 대신 params.get(i) (파라미터) 를 사용한다
+     * -> 페치 조인만 추가하는 스펙처럼 조건이 없으면 null 을 반환해도 된다
+     */
+    @FunctionalInterface
+    public interface Template<T> {
+        Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb, Params params);
+    }
+
+    /**
+     * 조건 하나의 파라미터 - 값 순서대로
+     */
+    public static final class Params {
+
+        private final List<ParameterExpression<?>> expressions;
+
+        private Params(List<ParameterExpression<?>> expressions) {
+            this.expressions = expressions;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <P> Expression<P> get(int index) {
+            return (Expression<P>) expressions.get(index);
+        }
+    }
+
+    /**
+     * 조건 - 값이 null(빈 조건) 이면 none() 을 반환하면 shape 에서 빠진다
+     */
+    public static <T> QuerySpec<T> where(String key, Template<T> template, Object... values) {
+        for (Object value : values) {
+            if (value == null) {
+                throw new IllegalArgumentException("파라미터 값이 null 입니다 - 조건을 빼려면 QuerySpec.none() 을 사용하세요: " + key);
+            }
+        }
+        return new Leaf<>(key, template, values);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> QuerySpec<T> none() {
+        return (QuerySpec<T>) None.INSTANCE;
+    }
+
+    public QuerySpec<T> and(QuerySpec<T> other) {
+        return Composite.of("and", this, other);
+    }
+
+    public QuerySpec<T> or(QuerySpec<T> other) {
+        return Composite.of("or", this, other);
+    }
+
+    public QuerySpec<T> not() {
+        return isNone() ? this : new Not<>(this);
+    }
+
+    public String shape() {
+        StringBuilder shape = new StringBuilder();
+        appendShape(shape);
+        return shape.toString();
+    }
+
+    public List<Object> values() {
+        List<Object> values = new ArrayList<>();
+        collectValues(values);
+        return values;
+    }
+
+    /**
+     * shape 의 predicate - 파라미터 이름은 값 순서대로 p0, p1 ...
+     * @return 조건이 없으면 null
+     */
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        return build(root, query, cb, new int[]{0});
+    }
+
+    public static String parameterName(int index) {
+        return "p" + index;
+    }
+
+    boolean isNone() {
+        return false;
+    }
+
+    abstract void appendShape(StringBuilder shape);
+
+    abstract void collectValues(List<Object> values);
+
+    abstract Predicate build(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb, int[] parameterIndex);
+
+    // ------------
+
+    private static final class Leaf<T> extends QuerySpec<T> {
+
+        private final String key;
+        private final Template<T> template;
+        private final Object[] values;
+
+        Leaf(String key, Template<T> template, Object[] values) {
+            this.key = key;
+            this.template = template;
+            this.values = values;
+        }
+
+        @Override
+        void appendShape(StringBuilder shape) {
+            shape.append(key);
+        }
+
+        @Override
+        void collectValues(List<Object> values) {
+            values.addAll(Arrays.asList(this.values));
+        }
+
+        @Override
+        Predicate build(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb, int[] parameterIndex) {
+            List<ParameterExpression<?>> expressions = new ArrayList<>(values.length);
+            for (Object value : values) {
+                // in 절 파라미터는 Collection 타입으로
+                Class<?> type = value instanceof Collection ? Collection.class : value.getClass();
+                expressions.add(cb.parameter(type, parameterName(parameterIndex[0]++)));
+            }
+            return template.toPredicate(root, query, cb, new Params(expressions));
+        }
+    }
+
+    private static final class Composite<T> extends QuerySpec<T> {
+
+        private final String operator;
+        private final List<QuerySpec<T>> children;
+
+        private Composite(String operator, List<QuerySpec<T>> children) {
+            this.operator = operator;
+            this.children = children;
+        }
+
+        // none 은 빼고, 같은 연산자는 펼친다 - a.and(b).and(c) 와 a.and(b.and(c)) 는 같은 shape
+        static <T> QuerySpec<T> of(String operator, QuerySpec<T> left, QuerySpec<T> right) {
+            List<QuerySpec<T>> children = new ArrayList<>();
+            for (QuerySpec<T> spec : List.of(left, right)) {
+                if (spec instanceof Composite && ((Composite<T>) spec).operator.equals(operator)) {
+                    children.addAll(((Composite<T>) spec).children);
+                } else if (!spec.isNone()) {
+                    children.add(spec);
+                }
+            }
+            if (children.isEmpty()) {
+                return none();
+            }
+            return children.size() == 1 ? children.get(0) : new Composite<>(operator, children);
+        }
+
+        @Override
+        void appendShape(StringBuilder shape) {
+            shape.append(operator).append('(');
+            for (int i = 0; i < children.size(); i++) {
+                if (i > 0) {
+                    shape.append(',');
+                }
+                children.get(i).appendShape(shape);
+            }
+            shape.append(')');
+        }
+
+        @Override
+        void collectValues(List<Object> values) {
+            for (QuerySpec<T> child : children) {
+                child.collectValues(values);
+            }
+        }
+
+        @Override
+        Predicate build(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb, int[] parameterIndex) {
+            List<Predicate> predicates = new ArrayList<>(children.size());
+            for (QuerySpec<T> child : children) {
+                Predicate predicate = child.build(root, query, cb, parameterIndex);
+                if (predicate != null) {
+                    predicates.add(predicate);
+                }
+            }
+            if (predicates.isEmpty()) {
+                return null;
+            }
+            Predicate[] array = predicates.toArray(new Predicate[0]);
+            return operator.equals("and") ? cb.and(array) : cb.or(array);
+        }
+    }
+
+    private static final class Not<T> extends QuerySpec<T> {
+
+        private final QuerySpec<T> spec;
+
+        Not(QuerySpec<T> spec) {
+            this.spec = spec;
+        }
+
+        @Override
+        void appendShape(StringBuilder shape) {
+            shape.append("not(");
+            spec.appendShape(shape);
+            shape.append(')');
+        }
+
+        @Override
+        void collectValues(List<Object> values) {
+            spec.collectValues(values);
+        }
+
+        @Override
+        Predicate build(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb, int[] parameterIndex) {
+            Predicate predicate = spec.build(root, query, cb, parameterIndex);
+            return predicate == null ? null : cb.not(predicate);
+        }
+    }
+
+    private static final class None<T> extends QuerySpec<T> {
+
+        private static final None<Object> INSTANCE = new None<>();
+
+        @Override
+        boolean isNone() {
+            return true;
+        }
+
+        @Override
+        void appendShape(StringBuilder shape) {
+        }
+
+        @Override
+        void collectValues(List<Object> values) {
+        }
+
+        @Override
+        Predicate build(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb, int[] parameterIndex) {
+            return null;
+        }
+    }
+}
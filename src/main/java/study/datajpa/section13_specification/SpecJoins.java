@@ -0,0 +1,48 @@
+package study.datajpa.section13_specification;
+
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Fetch;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+
+/**
+ * 같은 경로의 조인을 재사용
+ *
+ * root.join("team") 은 호출할 때마다 새 조인을 만든다
+ * -> teamName 스펙과 다른 team 스펙을 같이 쓰면 "inner join team t1 ... inner join team t2" 중복 조인
+ * -> 이미 있는 조인(또는 페치 조인)이 같은 속성 + 같은 조인 타입이면 그걸 사용한다
+ *
+ * count / exists 쿼리는 같은 스펙으로 Criteria 트리를 다시 만든다 (SpecificationQueryExecutor)
+ * -> 조인은 predicate 가 join() 으로 요청한 것만 생긴다
+ * -> 페치 조인은 fetch() 로 - 엔티티를 select 하는 쿼리에서만 붙는다
+ * */
+public abstract class SpecJoins {
+
+    @SuppressWarnings("unchecked")
+    public static <X, Y> Join<X, Y> join(From<?, X> from, String attribute, JoinType joinType) {
+        for (Join<X, ?> join : from.getJoins()) {
+            if (join.getAttribute().getName().equals(attribute) && join.getJoinType() == joinType) {
+                return (Join<X, Y>) join;
+            }
+        }
+        // hibernate 의 페치 조인 구현체는 Join 이기도 하다
+        for (Fetch<X, ?> fetch : from.getFetches()) {
+            if (fetch instanceof Join && fetch.getAttribute().getName().equals(attribute) && fetch.getJoinType() == joinType) {
+                return (Join<X, Y>) fetch;
+            }
+        }
+        return from.join(attribute, joinType);
+    }
+
+    // count(root), select 1 처럼 루트 엔티티를 select 하지 않는 쿼리에 페치 조인이 있으면 hibernate 는 오류
+    public static <X> void fetch(From<?, X> from, CriteriaQuery<?> query, String attribute, JoinType joinType) {
+        for (Root<?> root : query.getRoots()) {
+            if (root.getJavaType() == query.getResultType()) {
+                from.fetch(attribute, joinType);
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package study.datajpa.section13_specification;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * QuerySpec 실행 - shape 별 JPQL 캐시
+ *
+ * JpaSpecificationExecutor.findAll(spec) 은 호출마다
+ * -> Criteria 트리 생성 -> JPQL 문자열로 렌더링 -> (hibernate 쿼리 플랜 캐시 조회) -> 실행
+ * 여기서는
+ * -> 처음 보는 shape : Criteria 트리를 파라미터(:p0 ...)로 만들고 JPQL 로 렌더링해서 캐시
+ * -> 다음부터 : 캐시된 JPQL 로 em.createQuery + 값 바인딩만 (JPQL 문자열이 같아서 쿼리 플랜 캐시도 그대로 hit)
+ *
+ * 캐시 key = 엔티티 + 쿼리 종류(select/count/exists) + shape + 정렬
+ * -> count, exists 는 같은 스펙으로 Criteria 트리를 다시 만들어 렌더링 (select JPQL 을 고치지 않는다)
+ *    . select 절 : count(root) / 1, order by 없음
+ *    . 조인 : predicate 가 SpecJoins.join 으로 요청한 것만 - 페치 조인은 SpecJoins.fetch 가 만들지 않는다
+ * -> 캐시가 max-entries 를 넘으면 더 이상 넣지 않고 매번 렌더링 (조합이 폭발하는 검색 조건 방어)
+ * */
+@Repository
+@Transactional(readOnly = true)
+public class SpecificationQueryExecutor {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final ConcurrentMap<String, String> jpqlCache = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public SpecificationQueryExecutor(@Value("${datajpa.specification.plan-cache.max-entries:1000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public <T> List<T> findAll(Class<T> domainType, QuerySpec<T> spec, Sort sort) {
+        TypedQuery<T> query = em.createQuery(selectJpql(domainType, spec, sort), domainType);
+        bind(query, spec.values());
+        return query.getResultList();
+    }
+
+    public <T> Page<T> findAll(Class<T> domainType, QuerySpec<T> spec, Pageable pageable) {
+        List<Object> values = spec.values();
+        TypedQuery<T> query = em.createQuery(selectJpql(domainType, spec, pageable.getSort()), domainType);
+        bind(query, values);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        //첫 페이지에서 content 가 size 보다 적으면 count 쿼리를 생략한다 (SimpleJpaRepository 와 같다)
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(domainType, spec, values));
+    }
+
+    public <T> long count(Class<T> domainType, QuerySpec<T> spec) {
+        return count(domainType, spec, spec.values());
+    }
+
+    public String selectJpql(Class<?> domainType, QuerySpec<?> spec, Sort sort) {
+        String key = domainType.getName() + "|select|" + spec.shape() + "|" + sort;
+        return cached(key, k -> render(domainType, spec, sort));
+    }
+
+    // 다음 페이지가 있는지만 필요할때 - count 없이 size + 1 개를 조회
+    public <T> Slice<T> findSlice(Class<T> domainType, QuerySpec<T> spec, Pageable pageable) {
+        TypedQuery<T> query = em.createQuery(selectJpql(domainType, spec, pageable.getSort()), domainType);
+        bind(query, spec.values());
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<T> content = query.getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    // count 대신 - 조건에 맞는 row 하나만 찾으면 멈춘다
+    public <T> boolean exists(Class<T> domainType, QuerySpec<T> spec) {
+        String key = domainType.getName() + "|exists|" + spec.shape();
+        Query query = em.createQuery(cached(key, k -> renderExists(domainType, spec)));
+        bind(query, spec.values());
+        return !query.setMaxResults(1).getResultList().isEmpty();
+    }
+
+    // order by, 페치 조인, predicate 에서 쓰지 않는 조인이 없는 count
+    public String countJpql(Class<?> domainType, QuerySpec<?> spec) {
+        String key = domainType.getName() + "|count|" + spec.shape();
+        return cached(key, k -> renderCount(domainType, spec));
+    }
+
+    public int cacheSize() {
+        return jpqlCache.size();
+    }
+
+    private <T> long count(Class<T> domainType, QuerySpec<T> spec, List<Object> values) {
+        TypedQuery<Long> query = em.createQuery(countJpql(domainType, spec), Long.class);
+        bind(query, values);
+        return query.getSingleResult();
+    }
+
+    private String cached(String key, Function<String, String> renderer) {
+        String jpql = jpqlCache.get(key);
+        if (jpql != null) {
+            return jpql;
+        }
+        if (jpqlCache.size() >= maxEntries) {
+            return renderer.apply(key);
+        }
+        return jpqlCache.computeIfAbsent(key, renderer);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private String render(Class domainType, QuerySpec spec, Sort sort) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery query = cb.createQuery(domainType);
+        Root root = query.from(domainType);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root);
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return jpql(query);
+    }
+
+    // 결과 타입이 Long 이라 스펙의 페치 조인은 빠진다 - distinct 스펙이면 count(distinct root)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private String renderCount(Class domainType, QuerySpec spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root root = query.from(domainType);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        query.distinct(false);
+        return jpql(query);
+    }
+
+    // 조건에 맞는 row 가 있는지만 - setMaxResults(1) 과 같이 사용
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private String renderExists(Class domainType, QuerySpec spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+        Root root = query.from(domainType);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(cb.literal(1));
+        return jpql(query);
+    }
+
+    //hibernate 가 Criteria 를 렌더링한 JPQL
+    private String jpql(CriteriaQuery<?> query) {
+        return em.createQuery(query).unwrap(org.hibernate.query.Query.class).getQueryString();
+    }
+
+    private void bind(Query query, List<Object> values) {
+        for (int i = 0; i < values.size(); i++) {
+            query.setParameter(QuerySpec.parameterName(i), values.get(i));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package study.datajpa.section14_persistence_context;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 벌크 update / delete 후 영속성 컨텍스트에서 영향받은 엔티티만 정리 - SelectiveEvictionAspect
+ *
+ * @Modifying(clearAutomatically = true) 는 em.clear() - 관계없는 엔티티까지 모두 준영속이 된다
+ * -> 다시 쓰려면 전부 다시 select
+ *
+ * @Modifying
+ * @EvictAfterModifying(value = Member.class, where = "e.age >= :age", refresh = true)
+ * @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
+ * int bulkAgePlusSelective(@Param("age") int age);
+ *
+ * -> where 가 없으면 value 타입(하위 타입 포함) 엔티티를 모두 준영속으로
+ * -> where 가 있으면 영속성 컨텍스트에 있는 것 중 조건에 맞는 것만 (update 전에 id 만 한번 조회)
+ * -> refresh 면 준영속으로 만든 엔티티를 in 쿼리 한번으로 다시 조회해서 영속성 컨텍스트에 올린다
+ *
+ * > 주의: clearAutomatically 와 같이 쓰지 않는다 (clear 되면 정리할 것이 없다)
+ * > 주의: 준영속이 된 기존 객체는 갱신되지 않는다 - refresh 후에는 다시 조회(find)한 객체를 사용
+ * */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EvictAfterModifying {
+
+    // 벌크 쿼리 대상 엔티티
+    Class<?> value();
+
+    // 영향받는 엔티티 조건 (JPQL, 별칭 e) - :name 파라미터는 메서드의 @Param 이름으로 바인딩
+    String where() default "";
+
+    boolean refresh() default false;
+}
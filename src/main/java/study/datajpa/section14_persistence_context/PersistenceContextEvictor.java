@@ -0,0 +1,109 @@
+package study.datajpa.section14_persistence_context;
+
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.Status;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.metamodel.EntityType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 영속성 컨텍스트에서 특정 타입 / 조건에 맞는 엔티티만 준영속으로 만든다
+ *
+ * 1. managed(...) - 지금 영속성 컨텍스트에 있는 엔티티 중 타입에 맞는 것 (쿼리 없음)
+ * 2. where 조건이 있으면 그 id 들 중 조건에 맞는 id 만 한번에 조회 - 벌크 쿼리 전에 (바뀌기 전 값 기준)
+ * 3. 벌크 쿼리 후 detach, refresh 면 in 쿼리 한번으로 다시 로딩
+ *
+ * 트랜잭션 밖이면 영속성 컨텍스트가 유지되지 않으므로 아무것도 하지 않는다
+ * */
+@Component
+public class PersistenceContextEvictor {
+
+    private static final Pattern PARAMETER = Pattern.compile(":(\\w+)");
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * 벌크 쿼리 전에 호출 - 정리할 엔티티 (id -> 엔티티)
+     */
+    public Map<Object, Object> affected(Class<?> entityType, String where, Map<String, Object> parameters) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Collections.emptyMap();
+        }
+        Map<Object, Object> managed = managed(entityType);
+        if (managed.isEmpty() || where == null || where.isBlank()) {
+            return managed;
+        }
+
+        EntityType<?> entity = em.getMetamodel().entity(entityType);
+        String id = idName(entity);
+        TypedQuery<Object> query = em.createQuery("select e." + id + " from " + entity.getName() + " e" +
+                " where e." + id + " in :evictIds and (" + where + ")", Object.class);
+        query.setParameter("evictIds", managed.keySet());
+        Matcher matcher = PARAMETER.matcher(where);
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            if (!parameters.containsKey(name)) {
+                throw new IllegalArgumentException("where 조건의 파라미터 :" + name + " 를 찾을수 없습니다: " + where);
+            }
+            query.setParameter(name, parameters.get(name));
+        }
+
+        Map<Object, Object> matched = new LinkedHashMap<>();
+        for (Object matchedId : query.getResultList()) {
+            matched.put(matchedId, managed.get(matchedId));
+        }
+        return matched;
+    }
+
+    /**
+     * 벌크 쿼리 후 호출 - refresh 면 다시 로딩한 엔티티를 반환
+     */
+    public List<Object> evict(Class<?> entityType, Map<Object, Object> affected, boolean refresh) {
+        if (affected.isEmpty()) {
+            return Collections.emptyList();
+        }
+        for (Object entity : affected.values()) {
+            em.detach(entity);
+        }
+        if (!refresh) {
+            return Collections.emptyList();
+        }
+
+        EntityType<?> entity = em.getMetamodel().entity(entityType);
+        String id = idName(entity);
+        return new ArrayList<>(em.createQuery("select e from " + entity.getName() + " e" +
+                        " where e." + id + " in :refreshIds", Object.class)
+                .setParameter("refreshIds", affected.keySet())
+                .getResultList());
+    }
+
+    private Map<Object, Object> managed(Class<?> entityType) {
+        SessionImplementor session = em.unwrap(SessionImplementor.class);
+        Map<Object, Object> managed = new LinkedHashMap<>();
+        for (Map.Entry<Object, EntityEntry> entry : session.getPersistenceContext().reentrantSafeEntityEntries()) {
+            EntityEntry entityEntry = entry.getValue();
+            if (entityEntry.getStatus() == Status.MANAGED
+                    && entityType.isAssignableFrom(entityEntry.getPersister().getMappedClass())) {
+                managed.put(entityEntry.getId(), entry.getKey());
+            }
+        }
+        return managed;
+    }
+
+    private String idName(EntityType<?> entity) {
+        return entity.getId(entity.getIdType().getJavaType()).getName();
+    }
+}
@@ -0,0 +1,53 @@
+package study.datajpa.section14_persistence_context;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Component;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 리포지토리 인터페이스 메서드의 @EvictAfterModifying 처리
+ *
+ * -> 조건 조회(update 전) -> 벌크 쿼리 -> detach / refresh
+ * */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class SelectiveEvictionAspect {
+
+    private final PersistenceContextEvictor evictor;
+
+    @Around("@annotation(evictAfterModifying)")
+    public Object evict(ProceedingJoinPoint joinPoint, EvictAfterModifying evictAfterModifying) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Map<Object, Object> affected = evictor.affected(evictAfterModifying.value(), evictAfterModifying.where(),
+                parameters(method, joinPoint.getArgs()));
+
+        Object result = joinPoint.proceed();
+
+        evictor.evict(evictAfterModifying.value(), affected, evictAfterModifying.refresh());
+        return result;
+    }
+
+    // @Param 이름 -> 인자 값
+    private Map<String, Object> parameters(Method method, Object[] args) {
+        Map<String, Object> parameters = new HashMap<>();
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof Param) {
+                    parameters.put(((Param) annotation).value(), args[i]);
+                }
+            }
+        }
+        return parameters;
+    }
+}
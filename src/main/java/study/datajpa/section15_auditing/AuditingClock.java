@@ -0,0 +1,48 @@
+package study.datajpa.section15_auditing;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.support.TransactionScoped;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * 등록일, 수정일에 넣을 현재 시각
+ *
+ * 엔티티마다 LocalDateTime.now() 를 부르면
+ * -> 10만건 flush 에 시계 읽기 + LocalDateTime 생성 10만번, 같은 트랜잭션인데 row 마다 시각이 다르다
+ * TRANSACTION / FLUSH 범위로 한번 읽은 시각을 트랜잭션마다 보관해서 같이 쓴다 (TransactionScoped)
+ *
+ * AuditingEntityListener(BatchDateTimeProvider) 와 순수 JPA @PrePersist(JpaBaseEntityAuditing) 가 같이 사용
+ * -> 엔티티 콜백은 스프링 빈이 아니므로 static 으로 관리 (WriteVersionListener 와 같은 방식), 설정은 AuditingClockConfig
+ * */
+public abstract class AuditingClock {
+
+    private static volatile TimestampScope scope = TimestampScope.NONE;
+    private static volatile Supplier<LocalDateTime> source = LocalDateTime::now;
+
+    private static final TransactionScoped<LocalDateTime> NOW = new TransactionScoped<>(() -> source.get());
+
+    public static LocalDateTime now() {
+        if (scope == TimestampScope.NONE || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return source.get();
+        }
+        return NOW.get();
+    }
+
+    // flush 가 끝나면 호출 - FLUSH 범위면 다음 엔티티부터 새 시각
+    public static void afterFlush() {
+        if (scope == TimestampScope.FLUSH) {
+            NOW.reset();
+        }
+    }
+
+    public static TimestampScope scope() {
+        return scope;
+    }
+
+    static void configure(TimestampScope timestampScope, Supplier<LocalDateTime> timeSource) {
+        scope = timestampScope;
+        source = timeSource;
+    }
+}
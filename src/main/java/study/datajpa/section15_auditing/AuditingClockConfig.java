@@ -0,0 +1,61 @@
+package study.datajpa.section15_auditing;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+/**
+ * datajpa.auditing.* 설정
+ *
+ * -> timestamp-scope : none / transaction / flush (TimestampScope)
+ * -> coarse-clock-millis : 0 보다 크면 CoarseClock 사용
+ * -> flush 범위면 hibernate Interceptor.postFlush 에서 시각을 비운다
+ * */
+@Configuration
+public class AuditingClockConfig {
+
+    private final CoarseClock coarseClock;
+
+    public AuditingClockConfig(@Value("${datajpa.auditing.timestamp-scope:transaction}") String scope,
+                               @Value("${datajpa.auditing.coarse-clock-millis:0}") long coarseClockMillis) {
+        this.coarseClock = coarseClockMillis > 0 ? new CoarseClock(coarseClockMillis) : null;
+        Supplier<LocalDateTime> source = coarseClock != null ? coarseClock : LocalDateTime::now;
+        AuditingClock.configure(TimestampScope.valueOf(scope.trim().toUpperCase()), source);
+    }
+
+    @Bean
+    public BatchDateTimeProvider batchDateTimeProvider() {
+        return new BatchDateTimeProvider();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer auditingClockFlushCustomizer() {
+        return hibernateProperties -> {
+            if (AuditingClock.scope() == TimestampScope.FLUSH) {
+                hibernateProperties.put(AvailableSettings.INTERCEPTOR, new FlushClockInterceptor());
+            }
+        };
+    }
+
+    @PreDestroy
+    public void close() {
+        if (coarseClock != null) {
+            coarseClock.close();
+        }
+    }
+
+    static class FlushClockInterceptor extends EmptyInterceptor {
+        @Override
+        public void postFlush(Iterator entities) {
+            AuditingClock.afterFlush();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.section15_auditing;
+
+import org.springframework.data.auditing.DateTimeProvider;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.Optional;
+
+/**
+ * @CreatedDate, @LastModifiedDate 값 - AuditingClock 을 사용
+ * -> @EnableJpaAuditing(dateTimeProviderRef = "batchDateTimeProvider")
+ * */
+public class BatchDateTimeProvider implements DateTimeProvider {
+
+    @Override
+    public Optional<TemporalAccessor> getNow() {
+        return Optional.of(AuditingClock.now());
+    }
+}
@@ -0,0 +1,54 @@
+package study.datajpa.section15_auditing;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import study.datajpa.support.TransactionScoped;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 등록자, 수정자를 트랜잭션(없으면 요청) 마다 한번만 구한다
+ *
+ * AuditingEntityListener 는 엔티티를 저장/수정할때마다 getCurrentAuditor() 를 호출한다
+ * -> 엔티티 1000 개를 저장하면 1000 번 - 그런데 한 트랜잭션 안에서 사용자는 같다
+ *
+ * 1. 트랜잭션 안 : 트랜잭션마다 보관 (TransactionScoped), 트랜잭션이 끝나면 제거
+ * 2. 트랜잭션 밖, 웹 요청 안 : 요청 attribute 로 보관
+ * 3. 둘다 아니면 매번 resolver 호출
+ * */
+public class CachingAuditorAware<T> implements AuditorAware<T> {
+
+    private static final String REQUEST_ATTRIBUTE = CachingAuditorAware.class.getName() + ".auditor";
+
+    private final Supplier<Optional<T>> resolver;
+    // 인스턴스마다 따로
+    private final TransactionScoped<Optional<T>> perTransaction;
+
+    public CachingAuditorAware(Supplier<Optional<T>> resolver) {
+        this.resolver = resolver;
+        this.perTransaction = new TransactionScoped<>(resolver);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<T> getCurrentAuditor() {
+        Optional<T> auditor = perTransaction.get();
+        if (auditor != null) {
+            return auditor;
+        }
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            auditor = (Optional<T>) request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (auditor == null) {
+                auditor = resolver.get();
+                request.setAttribute(REQUEST_ATTRIBUTE, auditor, RequestAttributes.SCOPE_REQUEST);
+            }
+            return auditor;
+        }
+
+        return resolver.get();
+    }
+}
@@ -0,0 +1,37 @@
+package study.datajpa.section15_auditing;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * tickMillis 마다 한번만 시계를 읽어두는 시각 - 읽는 쪽은 volatile 필드 읽기뿐 (생성, 시스템 호출 없음)
+ *
+ * -> 정밀도는 tickMillis (등록일, 수정일 정도에만)
+ * */
+public class CoarseClock implements Supplier<LocalDateTime>, AutoCloseable {
+
+    private final ScheduledExecutorService ticker;
+    private volatile LocalDateTime now = LocalDateTime.now();
+
+    public CoarseClock(long tickMillis) {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coarse-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> now = LocalDateTime.now(), tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public LocalDateTime get() {
+        return now;
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+}
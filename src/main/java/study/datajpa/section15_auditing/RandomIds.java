@@ -0,0 +1,22 @@
+package study.datajpa.section15_auditing;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * UUID.randomUUID() 대신 ThreadLocalRandom 으로 만드는 버전 4 UUID
+ *
+ * UUID.randomUUID() 는 static SecureRandom 하나를 모든 스레드가 같이 쓴다 -> 동시 저장이 많으면 경합
+ * ThreadLocalRandom 은 스레드마다 따로 - 락이 없다
+ *
+ * > 주의: 예측 가능한 난수 - 토큰, 비밀번호 등 보안 용도로 쓰면 안된다 (식별용으로만)
+ * */
+public abstract class RandomIds {
+
+    public static UUID uuid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L; // version 4
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // IETF variant
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,13 @@
+package study.datajpa.section15_auditing;
+
+/**
+ * 등록일, 수정일 시각을 얼마나 공유할지 - AuditingClock
+ */
+public enum TimestampScope {
+    // 엔티티마다 시계를 읽는다 (기존 동작)
+    NONE,
+    // 트랜잭션 안의 엔티티는 모두 같은 시각
+    TRANSACTION,
+    // flush 마다 새 시각 - 트랜잭션이 길어도 flush 단위로는 같은 시각
+    FLUSH
+}
@@ -0,0 +1,5 @@
+package study.datajpa.section16_changelog;
+
+public enum ChangeAction {
+    INSERT, UPDATE, DELETE, BULK_UPDATE, BULK_INSERT
+}
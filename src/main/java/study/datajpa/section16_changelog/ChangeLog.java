@@ -0,0 +1,36 @@
+package study.datajpa.section16_changelog;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 변경 이력 테이블 (append-only)
+ *
+ * 저장은 ChangeLogWriter 가 JDBC batch insert 로 한다 - 이 엔티티는 테이블 생성(ddl-auto)과 조회용
+ * */
+@Entity
+@Table(name = "change_log", indexes = @Index(name = "idx_change_log_entity", columnList = "entity_type, entity_id"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class ChangeLog {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entity_type", nullable = false)
+    private String entityType;
+    // 벌크 update, insert 는 null
+    @Column(name = "entity_id")
+    private Long entityId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ChangeAction action;
+    @Column(length = 1000)
+    private String detail;
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
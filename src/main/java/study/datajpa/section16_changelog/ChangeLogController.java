@@ -0,0 +1,17 @@
+package study.datajpa.section16_changelog;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+public class ChangeLogController {
+
+    private final ChangeLogPipeline changeLogPipeline;
+
+    @GetMapping("/monitoring/change-log")
+    public ChangeLogMetrics changeLog(){
+        return changeLogPipeline.metrics();
+    }
+}
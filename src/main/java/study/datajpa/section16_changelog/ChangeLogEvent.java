@@ -0,0 +1,29 @@
+package study.datajpa.section16_changelog;
+
+import lombok.Getter;
+import lombok.ToString;
+import study.datajpa.section15_auditing.AuditingClock;
+
+import java.time.LocalDateTime;
+
+/**
+ * 큐(MpscRingBuffer) 에 넣는 변경 이벤트 - 불변
+ */
+@Getter
+@ToString
+public class ChangeLogEvent {
+
+    private final String entityType;
+    private final Long entityId;
+    private final ChangeAction action;
+    private final String detail;
+    private final LocalDateTime occurredAt;
+
+    public ChangeLogEvent(String entityType, Long entityId, ChangeAction action, String detail) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.action = action;
+        this.detail = detail;
+        this.occurredAt = AuditingClock.now();
+    }
+}
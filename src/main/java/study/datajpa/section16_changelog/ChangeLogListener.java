@@ -0,0 +1,62 @@
+package study.datajpa.section16_changelog;
+
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.ObjectProvider;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Member, Team 변경을 ChangeLogPipeline 으로 넘긴다 - @EntityListeners(ChangeLogListener.class)
+ *
+ * 엔티티 리스너도 스프링 빈으로 생성된다 (스프링 부트가 hibernate 에 SpringBeanContainer 를 등록)
+ * -> 생성자 주입 가능, 단 EntityManagerFactory 를 만드는 중에 생성되므로 ObjectProvider 로 나중에 꺼낸다
+ *    (파이프라인 -> 트랜잭션 매니저 -> EntityManagerFactory 순환 참조)
+ * 큐에 넣기만 하고 바로 돌아온다 - flush(쓰기 경로)에 DB 작업을 더하지 않는다
+ * */
+public class ChangeLogListener {
+
+    private final ObjectProvider<ChangeLogPipeline> pipeline;
+
+    public ChangeLogListener(ObjectProvider<ChangeLogPipeline> pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        record(entity, ChangeAction.INSERT);
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        record(entity, ChangeAction.UPDATE);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        record(entity, ChangeAction.DELETE);
+    }
+
+    private void record(Object entity, ChangeAction action) {
+        if (entity instanceof Member) {
+            Member member = (Member) entity;
+            Long teamId = teamId(member.getTeam());
+            pipeline.getObject().record(new ChangeLogEvent("Member", member.getId(), action,
+                    "username=" + member.getUsername() + ", age=" + member.getAge() + ", teamId=" + teamId));
+        } else if (entity instanceof Team) {
+            Team team = (Team) entity;
+            pipeline.getObject().record(new ChangeLogEvent("Team", team.getId(), action, "name=" + team.getName()));
+        }
+    }
+
+    // 지연 로딩 프록시면 초기화 없이 id 만
+    private Long teamId(Team team) {
+        if (team instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+        }
+        return team == null ? null : team.getId();
+    }
+}
@@ -0,0 +1,83 @@
+package study.datajpa.section16_changelog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+/**
+ * 변경 이력 파이프라인 통계 - /monitoring/change-log 로 확인
+ * */
+public class ChangeLogMetrics {
+
+    private final IntSupplier queueDepth;
+    private final int capacity;
+
+    private final AtomicLong offered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private volatile long lastFlushNanos;
+
+    ChangeLogMetrics(IntSupplier queueDepth, int capacity) {
+        this.queueDepth = queueDepth;
+        this.capacity = capacity;
+    }
+
+    void onOffer(boolean accepted) {
+        offered.incrementAndGet();
+        if (!accepted) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    void onFlush(int rows, long elapsedNanos, boolean success) {
+        flushes.incrementAndGet();
+        totalFlushNanos.addAndGet(elapsedNanos);
+        maxFlushNanos.accumulateAndGet(elapsedNanos, Math::max);
+        lastFlushNanos = elapsedNanos;
+        (success ? written : failed).addAndGet(rows);
+    }
+
+    public int getQueueDepth() {
+        return queueDepth.getAsInt();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getOffered() {
+        return offered.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getFlushes() {
+        return flushes.get();
+    }
+
+    public long getLastFlushMicros() {
+        return lastFlushNanos / 1_000;
+    }
+
+    public long getMaxFlushMicros() {
+        return maxFlushNanos.get() / 1_000;
+    }
+
+    public long getAvgFlushMicros() {
+        long count = flushes.get();
+        return count == 0 ? 0 : totalFlushNanos.get() / count / 1_000;
+    }
+}
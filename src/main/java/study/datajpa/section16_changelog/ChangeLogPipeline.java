@@ -0,0 +1,151 @@
+package study.datajpa.section16_changelog;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import study.datajpa.support.TransactionScoped;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 변경 이력 비동기 저장
+ *
+ * 엔티티 리스너(ChangeLogListener), 벌크 update -> record() -> 커밋 후 큐(MpscRingBuffer) -> writer 스레드 -> change_log
+ *
+ * 1. 트랜잭션 안이면 커밋된 뒤에만 큐에 넣는다 (롤백된 변경은 남기지 않는다)
+ * 2. 큐에 넣는 것까지만 쓰기 경로에서 - DB 저장은 writer 스레드가 batch-size 단위로
+ * 3. 큐가 가득 차면 OverflowPolicy (DROP / BLOCK) - 쓰기 경로를 무한정 막지 않는다
+ * -> 버려진 수, 큐 깊이, flush 시간은 ChangeLogMetrics
+ *
+ * > 주의: 커밋 후 ~ DB 저장 사이에 서버가 죽으면 이력이 유실될수 있다 (at-most-once)
+ * */
+@Slf4j
+@Component
+public class ChangeLogPipeline {
+
+    // 트랜잭션에서 커밋을 기다리는 이벤트 - REQUIRES_NEW 안쪽 트랜잭션은 따로 모아서 자기 커밋때 넣는다
+    private final TransactionScoped<List<ChangeLogEvent>> pending = new TransactionScoped<>(ArrayList::new,
+            (events, status) -> {
+                if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                    events.forEach(this::offer);
+                }
+            });
+
+    private final ChangeLogWriter writer;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+
+    private final MpscRingBuffer<ChangeLogEvent> buffer;
+    private final ChangeLogMetrics metrics;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public ChangeLogPipeline(ChangeLogWriter writer,
+                             @Value("${datajpa.change-log.enabled:true}") boolean enabled,
+                             @Value("${datajpa.change-log.capacity:8192}") int capacity,
+                             @Value("${datajpa.change-log.batch-size:500}") int batchSize,
+                             @Value("${datajpa.change-log.flush-interval-millis:50}") long flushIntervalMillis,
+                             @Value("${datajpa.change-log.overflow-policy:drop}") String overflowPolicy,
+                             @Value("${datajpa.change-log.block-timeout-millis:10}") long blockTimeoutMillis) {
+        this.writer = writer;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase());
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.metrics = new ChangeLogMetrics(buffer::size, buffer.capacity());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::drainLoop, "change-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    // 종료 전에 큐에 남은 것까지 저장
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public void record(ChangeLogEvent event) {
+        if (!enabled) {
+            return;
+        }
+        List<ChangeLogEvent> pending = this.pending.get();
+        if (pending == null) {
+            offer(event);
+            return;
+        }
+        pending.add(event);
+    }
+
+    public ChangeLogMetrics metrics() {
+        return metrics;
+    }
+
+    private void offer(ChangeLogEvent event) {
+        boolean accepted = buffer.offer(event);
+        if (!accepted && overflowPolicy == OverflowPolicy.BLOCK) {
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            while (!accepted && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(50_000);
+                accepted = buffer.offer(event);
+            }
+        }
+        metrics.onOffer(accepted);
+    }
+
+    private void drainLoop() {
+        List<ChangeLogEvent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            batch.clear();
+            int drained = buffer.drainTo(batch, batchSize);
+            if (drained > 0) {
+                flush(batch);
+            }
+            if (drained < batchSize) {
+                if (!running && buffer.size() == 0) {
+                    return;
+                }
+                //덜 찼으면 flush-interval 만큼 모았다가 다음 batch
+                LockSupport.parkNanos(flushIntervalNanos);
+            }
+        }
+    }
+
+    private void flush(List<ChangeLogEvent> batch) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            writer.write(batch);
+            success = true;
+        } catch (RuntimeException e) {
+            //실패한 묶음은 버린다 - 재시도로 큐가 밀리면 쓰기 경로까지 막힌다
+            log.error("change log flush failed. rows={}", batch.size(), e);
+        } finally {
+            metrics.onFlush(batch.size(), System.nanoTime() - start, success);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package study.datajpa.section16_changelog;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 변경 이벤트 묶음을 change_log 에 JDBC batch insert - 묶음 하나가 트랜잭션 하나
+ * */
+@Component
+public class ChangeLogWriter {
+
+    private static final String INSERT_CHANGE_LOG =
+            "insert into change_log (entity_type, entity_id, action, detail, occurred_at) values (?, ?, ?, ?, ?)";
+    private static final int[] INSERT_CHANGE_LOG_TYPES =
+            {Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+
+    public ChangeLogWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    public void write(List<ChangeLogEvent> events) {
+        List<Object[]> batchArgs = new ArrayList<>(events.size());
+        for (ChangeLogEvent event : events) {
+            batchArgs.add(new Object[]{event.getEntityType(), event.getEntityId(), event.getAction().name(),
+                    event.getDetail(), Timestamp.valueOf(event.getOccurredAt())});
+        }
+        tx.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_CHANGE_LOG, batchArgs, INSERT_CHANGE_LOG_TYPES));
+    }
+}
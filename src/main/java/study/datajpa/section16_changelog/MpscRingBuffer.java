@@ -0,0 +1,86 @@
+package study.datajpa.section16_changelog;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 크기가 고정된 lock-free 큐 - 생산자 여러명(Multi Producer), 소비자 한명(Single Consumer)
+ *
+ * 생산자 : tail 을 CAS 로 한칸 선점 -> 그 칸에 값 저장, 가득 차면 false (기다리지 않는다)
+ * 소비자 : head 칸을 읽고 비운 뒤 head 를 올린다 - 소비자는 한 스레드만 (ChangeLogPipeline 의 writer)
+ * -> 선점만 하고 아직 값을 쓰지 않은 칸을 만나면 비어있는 것으로 보고 다음에 다시 읽는다
+ *
+ * ArrayBlockingQueue 는 offer/poll 이 락 하나를 같이 쓴다 -> 엔티티 리스너(쓰기 경로)에서 경합
+ * */
+public class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int capacity;
+    private final int mask;
+    // 다음에 생산자가 선점할 위치
+    private final AtomicLong tail = new AtomicLong();
+    // 다음에 소비자가 읽을 위치 - 소비자만 쓴다
+    private final AtomicLong head = new AtomicLong();
+
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity 는 2 이상이어야 합니다: " + capacity);
+        }
+        this.capacity = Integer.highestOneBit(capacity - 1) << 1; // 2의 제곱수로 올림
+        this.mask = this.capacity - 1;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    public boolean offer(E element) {
+        Objects.requireNonNull(element);
+        while (true) {
+            long current = tail.get();
+            if (current - head.get() >= capacity) {
+                return false;
+            }
+            if (tail.compareAndSet(current, current + 1)) {
+                slots.lazySet(index(current), element);
+                return true;
+            }
+        }
+    }
+
+    // 소비자 스레드에서만 호출
+    public E poll() {
+        long current = head.get();
+        int index = index(current);
+        E element = slots.get(index);
+        if (element == null) {
+            return null;
+        }
+        slots.lazySet(index, null);
+        head.lazySet(current + 1);
+        return element;
+    }
+
+    // 소비자 스레드에서만 호출
+    public int drainTo(Collection<? super E> target, int limit) {
+        int drained = 0;
+        E element;
+        while (drained < limit && (element = poll()) != null) {
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    // 근사값 - 동시에 offer/poll 중이면 조금 다를수 있다
+    public int size() {
+        return (int) Math.max(0, Math.min(capacity, tail.get() - head.get()));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+}
@@ -0,0 +1,11 @@
+package study.datajpa.section16_changelog;
+
+/**
+ * 큐가 가득 찼을때 - ChangeLogPipeline
+ */
+public enum OverflowPolicy {
+    // 바로 버린다 (dropped 증가) - 쓰기 경로 지연 없음
+    DROP,
+    // block-timeout-millis 동안 자리가 나기를 기다린다, 그래도 없으면 버린다 - 쓰기 경로가 느려지는 대신 덜 버린다
+    BLOCK
+}
@@ -0,0 +1,19 @@
+package study.datajpa.section17_second_level_cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class SecondLevelCacheController {
+
+    private final SecondLevelCacheStatistics secondLevelCacheStatistics;
+
+    @GetMapping("/monitoring/second-level-cache")
+    public List<SecondLevelCacheStatistics.RegionStatistics> secondLevelCache(){
+        return secondLevelCacheStatistics.regions();
+    }
+}
@@ -0,0 +1,145 @@
+package study.datajpa.section17_second_level_cache;
+
+import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceUnitUtil;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * id 목록 조회 - 2차 캐시에 있는 것은 캐시에서, 없는 것만 in 쿼리 한번
+ *
+ * JPQL 조회(where id in ...)는 2차 캐시를 보지 않고 항상 DB 에 간다
+ * em.find 는 2차 캐시를 보지만 없으면 id 마다 select
+ * -> 캐시에 있는지(Cache.contains) 먼저 나눠서 각각에 맞는 방법으로
+ *
+ * fetchJoins - 캐시에서 꺼낸 엔티티의 연관관계는 프록시라서 따로 맞춘다
+ * -> 연관 엔티티도 캐시에 있으면 그대로, 없는 것만 모아서 in 쿼리 한번 (팀이 캐시에서 빠져도 팀마다 select 하지 않는다)
+ * -> 컬렉션 페치 조인은 모두 쿼리로
+ *
+ * 순서는 보장하지 않는다 - TwoPhasePaging 이 맞춰준다
+ * */
+@Component
+public class SecondLevelCacheLoader {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * @param fetchJoins 캐시에 없는 것을 조회할때 같이 페치 조인할 연관관계 (예: "team")
+     */
+    public <T> List<T> findAllById(Class<T> entityType, Collection<?> ids, String... fetchJoins) {
+        EntityType<T> entity = em.getMetamodel().entity(entityType);
+        //컬렉션 페치 조인은 캐시 경로로 맞출수 없다 - 모두 쿼리로
+        for (String fetchJoin : fetchJoins) {
+            if (entity.getAttribute(fetchJoin).isCollection()) {
+                return query(entityType, new ArrayList<>(ids), fetchJoins);
+            }
+        }
+
+        Cache cache = em.getEntityManagerFactory().getCache();
+        List<T> found = new ArrayList<>(ids.size());
+        List<Object> misses = new ArrayList<>();
+        for (Object id : ids) {
+            if (cache.contains(entityType, id)) {
+                T loaded = em.find(entityType, id);
+                if (loaded != null) {
+                    found.add(loaded);
+                }
+            } else {
+                misses.add(id);
+            }
+        }
+        //캐시에서 꺼낸 엔티티의 연관관계는 프록시 - 연관 엔티티도 캐시에 없으면 in 쿼리 한번으로 (N + 1 방지)
+        for (String fetchJoin : fetchJoins) {
+            initializeAssociations(found, entity, fetchJoin);
+        }
+        if (!misses.isEmpty()) {
+            found.addAll(query(entityType, misses, fetchJoins));
+        }
+        return found;
+    }
+
+    /**
+     * findAllById 와 같지만 ids 순서대로 - 없는 id 는 빠진다
+     */
+    public <T> List<T> findAllByIdInOrder(Class<T> entityType, List<?> ids) {
+        PersistenceUnitUtil util = em.getEntityManagerFactory().getPersistenceUnitUtil();
+        Map<Object, T> byId = new HashMap<>();
+        for (T entity : findAllById(entityType, ids)) {
+            byId.put(util.getIdentifier(entity), entity);
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                ordered.add(entity);
+            }
+        }
+        return ordered;
+    }
+
+    private <T> void initializeAssociations(List<T> entities, EntityType<T> entity, String association) {
+        Attribute<? super T, ?> attribute = entity.getAttribute(association);
+        Cache cache = em.getEntityManagerFactory().getCache();
+        Set<Object> ids = new LinkedHashSet<>();
+        for (T loaded : entities) {
+            Object target = value(attribute, loaded);
+            if (target instanceof HibernateProxy && !Hibernate.isInitialized(target)) {
+                Object id = ((HibernateProxy) target).getHibernateLazyInitializer().getIdentifier();
+                if (!cache.contains(attribute.getJavaType(), id)) {
+                    ids.add(id);
+                }
+            }
+        }
+        if (!ids.isEmpty()) {
+            //영속성 컨텍스트에 올려두면 프록시를 초기화할때 쿼리 없이 여기서 찾는다
+            query(attribute.getJavaType(), new ArrayList<>(ids));
+        }
+    }
+
+    // 필드 접근(@Id 가 필드) - 프록시를 초기화하지 않고 연관관계 값만 읽는다
+    private static Object value(Attribute<?, ?> attribute, Object entity) {
+        Member member = attribute.getJavaMember();
+        try {
+            if (member instanceof Field) {
+                Field field = (Field) member;
+                field.setAccessible(true);
+                return field.get(entity);
+            }
+            Method getter = (Method) member;
+            getter.setAccessible(true);
+            return getter.invoke(entity);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("연관관계 값을 읽을수 없습니다: " + attribute.getName(), e);
+        }
+    }
+
+    private <T> List<T> query(Class<T> entityType, List<Object> ids, String... fetchJoins) {
+        EntityType<T> entity = em.getMetamodel().entity(entityType);
+        String idName = entity.getId(entity.getIdType().getJavaType()).getName();
+        StringBuilder jpql = new StringBuilder("select e from ").append(entity.getName()).append(" e");
+        for (String fetchJoin : fetchJoins) {
+            jpql.append(" left join fetch e.").append(fetchJoin);
+        }
+        jpql.append(" where e.").append(idName).append(" in :ids");
+        return em.createQuery(jpql.toString(), entityType)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+}
@@ -0,0 +1,70 @@
+package study.datajpa.section17_second_level_cache;
+
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 2차 캐시 리전별 통계 - JCache 표준 통계 MBean (javax.cache:type=CacheStatistics)
+ *
+ * ehcache.xml 의 enable-statistics="true" 가 있어야 등록된다
+ * -> hibernate 통계(generate_statistics)를 켜지 않아도 된다, evict 수도 나온다
+ * */
+@Component
+public class SecondLevelCacheStatistics {
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    public List<RegionStatistics> regions() {
+        List<RegionStatistics> regions = new ArrayList<>();
+        try {
+            for (ObjectName name : mBeanServer.queryNames(new ObjectName("javax.cache:type=CacheStatistics,*"), null)) {
+                regions.add(new RegionStatistics(name.getKeyProperty("Cache"),
+                        attribute(name, "CacheHits"),
+                        attribute(name, "CacheMisses"),
+                        ((Number) mBeanServer.getAttribute(name, "CacheHitPercentage")).floatValue(),
+                        attribute(name, "CachePuts"),
+                        attribute(name, "CacheRemovals"),
+                        attribute(name, "CacheEvictions")));
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("2차 캐시 통계를 읽을수 없습니다.", e);
+        }
+        regions.sort(Comparator.comparing(RegionStatistics::getRegion));
+        return regions;
+    }
+
+    private long attribute(ObjectName name, String attribute) throws JMException {
+        return ((Number) mBeanServer.getAttribute(name, attribute)).longValue();
+    }
+
+    @Getter
+    public static class RegionStatistics {
+
+        private final String region;
+        private final long hits;
+        private final long misses;
+        private final float hitPercentage;
+        private final long puts;
+        private final long removals;
+        private final long evictions;
+
+        RegionStatistics(String region, long hits, long misses, float hitPercentage,
+                         long puts, long removals, long evictions) {
+            this.region = region;
+            this.hits = hits;
+            this.misses = misses;
+            this.hitPercentage = hitPercentage;
+            this.puts = puts;
+            this.removals = removals;
+            this.evictions = evictions;
+        }
+    }
+}
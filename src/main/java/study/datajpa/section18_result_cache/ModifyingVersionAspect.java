@@ -0,0 +1,80 @@
+package study.datajpa.section18_result_cache;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.WriteVersionListener;
+import study.datajpa.section16_changelog.ChangeAction;
+import study.datajpa.section16_changelog.ChangeLogEvent;
+import study.datajpa.section16_changelog.ChangeLogPipeline;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import javax.persistence.metamodel.EntityType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @Modifying 벌크 쿼리(bulkAgePlus 등) 후 대상 엔티티 버전 증가 + 변경 이력
+ *
+ * 벌크 쿼리는 엔티티 리스너(WriteVersionListener, ChangeLogListener)를 거치지 않는다
+ * -> @Query 의 update / delete 대상 엔티티 이름으로 타입을 찾는다 (메서드마다 한번만 파싱)
+ * -> 버전 : 지금 한번 + 커밋(롤백) 후 한번 더 (WriteVersionListener.bumpTransactional)
+ * -> 변경 이력 : BULK_UPDATE 한건 (메서드, 변경된 row 수) - 커밋 후에만 남는다 (ChangeLogPipeline)
+ * */
+@Aspect
+@Component
+public class ModifyingVersionAspect {
+
+    private static final Pattern TARGET = Pattern.compile("^\\s*(?:update|delete\\s+from|delete)\\s+(\\w+)",
+            Pattern.CASE_INSENSITIVE);
+
+    private final Map<Method, Class<?>> targets = new ConcurrentHashMap<>();
+
+    @PersistenceUnit
+    private EntityManagerFactory emf;
+
+    private final ChangeLogPipeline changeLogPipeline;
+
+    public ModifyingVersionAspect(ChangeLogPipeline changeLogPipeline) {
+        this.changeLogPipeline = changeLogPipeline;
+    }
+
+    @AfterReturning(pointcut = "@annotation(org.springframework.data.jpa.repository.Modifying)", returning = "result")
+    public void bumpVersion(JoinPoint joinPoint, Object result) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> target = targets.computeIfAbsent(method, this::target);
+        if (target == Void.class) {
+            return;
+        }
+        WriteVersionListener.bumpTransactional(target);
+        changeLogPipeline.record(new ChangeLogEvent(emf.getMetamodel().entity(target).getName(), null,
+                ChangeAction.BULK_UPDATE, "method=" + method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                + ", rows=" + result + ", jpql=" + method.getAnnotation(Query.class).value()));
+    }
+
+    // 대상을 알수 없으면 (native 쿼리의 테이블 이름 등) Void - 아무것도 하지 않는다
+    private Class<?> target(Method method) {
+        Query query = method.getAnnotation(Query.class);
+        if (query == null || query.nativeQuery()) {
+            return Void.class;
+        }
+        Matcher matcher = TARGET.matcher(query.value());
+        if (!matcher.find()) {
+            return Void.class;
+        }
+        String entityName = matcher.group(1);
+        for (EntityType<?> entity : emf.getMetamodel().getEntities()) {
+            if (entity.getName().equals(entityName)) {
+                return entity.getJavaType();
+            }
+        }
+        return Void.class;
+    }
+}
@@ -0,0 +1,31 @@
+package study.datajpa.section18_result_cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 리포지토리 메서드 결과 캐시 - RepositoryResultCacheAspect
+ *
+ * @RepositoryResultCache(dependsOn = {Member.class, Team.class})
+ * @Query("select new study.datajpa.dto.MemberDto( m.id, m.username, t.name ) from Member m join m.team t")
+ * List<MemberDto> findMemberDto();
+ *
+ * -> key : 메서드 + 인자 (컬렉션 인자는 내용으로 비교)
+ * -> dependsOn 엔티티가 저장/수정/삭제/벌크 수정되면 (WriteVersionListener 버전) 버린다
+ * -> 엔티티 결과는 id 만 저장 - 꺼낼때 현재 영속성 컨텍스트 / 2차 캐시에서 다시 찾는다
+ * -> DTO, 값 결과는 같은 객체를 같이 쓴다 - 꺼낸 DTO 를 수정하면 안된다
+ *
+ * 쿼리 캐시(hibernate.cache.use_query_cache) 는 테이블 단위 timestamp 로 무효화하고 결과를 리전 하나에 모두 넣는다
+ * -> 메서드별로 켜고, 크기(W-TinyLFU)로 제한하기 위해 따로 만든다
+ * */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RepositoryResultCache {
+
+    // 결과에 영향을 주는 엔티티 - 이 엔티티들의 버전이 바뀌면 무효화
+    Class<?>[] dependsOn();
+}
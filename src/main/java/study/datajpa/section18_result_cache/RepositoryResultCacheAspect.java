@@ -0,0 +1,188 @@
+package study.datajpa.section18_result_cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.WriteVersionListener;
+import study.datajpa.section17_second_level_cache.SecondLevelCacheLoader;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceUnit;
+import javax.persistence.PersistenceUnitUtil;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @RepositoryResultCache 처리
+ *
+ * 1. key(메서드 + 인자) 로 찾고, 저장할때의 dependsOn 버전과 지금 버전이 같으면 그대로 반환
+ * 2. 아니면 실행 - 실행 전에 읽은 버전으로 저장 (실행 중에 변경되면 다음 조회때 다시 실행)
+ * 3. 지금 트랜잭션에서 dependsOn 엔티티를 변경했으면 저장하지 않는다 (커밋 전 값)
+ * 4. 트랜잭션에 flush 안된 변경이 있으면 캐시를 보지 않고 실행 - 버전은 flush(@PostPersist, @PostUpdate) 때 올라간다
+ *
+ * Caffeine - maximumSize 를 넘으면 W-TinyLFU 로 자주 안쓰는 것부터 evict
+ * */
+@Aspect
+@Component
+public class RepositoryResultCacheAspect {
+
+    private final Cache<ResultCacheKey, CachedResult> cache;
+    private final SecondLevelCacheLoader loader;
+
+    @PersistenceUnit
+    private EntityManagerFactory emf;
+    @PersistenceContext
+    private EntityManager em;
+
+    public RepositoryResultCacheAspect(SecondLevelCacheLoader loader,
+                                       @Value("${datajpa.result-cache.max-entries:10000}") long maxEntries,
+                                       @Value("${datajpa.result-cache.ttl-millis:60000}") long ttlMillis) {
+        this.loader = loader;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    @Around("@annotation(resultCache)")
+    public Object cached(ProceedingJoinPoint joinPoint, RepositoryResultCache resultCache) throws Throwable {
+        //flush 전 변경(persist, dirty checking)은 아직 버전에 반영되지 않았다 - 실행하면서 auto flush 되도록 캐시를 건너뛴다
+        if (hasPendingChanges()) {
+            return joinPoint.proceed();
+        }
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        ResultCacheKey key = new ResultCacheKey(method, joinPoint.getArgs());
+        long[] versions = versions(resultCache.dependsOn());
+
+        CachedResult cached = cache.getIfPresent(key);
+        if (cached != null && cached.isValid(versions)) {
+            return cached.get(loader);
+        }
+
+        Object result = joinPoint.proceed();
+        if (!writtenInCurrentTransaction(resultCache.dependsOn())) {
+            cache.put(key, CachedResult.of(result, versions, emf.getPersistenceUnitUtil()));
+        }
+        return result;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    private boolean hasPendingChanges() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && em.unwrap(Session.class).isDirty();
+    }
+
+    private long[] versions(Class<?>[] types) {
+        long[] versions = new long[types.length];
+        for (int i = 0; i < types.length; i++) {
+            versions[i] = WriteVersionListener.current(types[i]);
+        }
+        return versions;
+    }
+
+    private boolean writtenInCurrentTransaction(Class<?>[] types) {
+        for (Class<?> type : types) {
+            if (WriteVersionListener.isWrittenInCurrentTransaction(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 캐시 값 - 엔티티(또는 엔티티 List) 면 id 만
+     */
+    private static final class CachedResult {
+
+        private final long[] versions;
+        private final Object value;
+        // 엔티티 결과일때만
+        private final Class<?> entityType;
+        private final List<Object> ids;
+        private final boolean single;
+
+        private CachedResult(long[] versions, Object value, Class<?> entityType, List<Object> ids, boolean single) {
+            this.versions = versions;
+            this.value = value;
+            this.entityType = entityType;
+            this.ids = ids;
+            this.single = single;
+        }
+
+        static CachedResult of(Object result, long[] versions, PersistenceUnitUtil util) {
+            if (isEntity(result)) {
+                return new CachedResult(versions, null, Hibernate.getClass(result),
+                        List.of(util.getIdentifier(result)), true);
+            }
+            if (result instanceof List && !((List<?>) result).isEmpty() && isEntityList((List<?>) result)) {
+                List<?> entities = (List<?>) result;
+                List<Object> ids = new ArrayList<>(entities.size());
+                for (Object entity : entities) {
+                    ids.add(util.getIdentifier(entity));
+                }
+                return new CachedResult(versions, null, Hibernate.getClass(entities.get(0)), ids, false);
+            }
+            if (result instanceof List) {
+                return new CachedResult(versions, Collections.unmodifiableList(new ArrayList<>((List<?>) result)),
+                        null, null, false);
+            }
+            return new CachedResult(versions, result, null, null, false);
+        }
+
+        boolean isValid(long[] currentVersions) {
+            return Arrays.equals(versions, currentVersions);
+        }
+
+        Object get(SecondLevelCacheLoader loader) {
+            if (entityType == null) {
+                return value;
+            }
+            //현재 영속성 컨텍스트 / 2차 캐시에서 - 없는 것만 in 쿼리
+            List<?> ordered = loader.findAllByIdInOrder(entityType, ids);
+            return single ? (ordered.isEmpty() ? null : ordered.get(0)) : ordered;
+        }
+
+        private static boolean isEntity(Object value) {
+            return value != null && Hibernate.getClass(value).isAnnotationPresent(Entity.class);
+        }
+
+        private static boolean isEntityList(List<?> values) {
+            Class<?> type = null;
+            for (Object value : values) {
+                if (!isEntity(value) || (type != null && Hibernate.getClass(value) != type)) {
+                    return false;
+                }
+                type = Hibernate.getClass(value);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package study.datajpa.section18_result_cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.support.CacheStatsResponse;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class ResultCacheController {
+
+    private final RepositoryResultCacheAspect repositoryResultCacheAspect;
+
+    @GetMapping("/monitoring/result-cache")
+    public Map<String, Object> resultCache(){
+        return CacheStatsResponse.of(repositoryResultCacheAspect.size(), repositoryResultCacheAspect.stats());
+    }
+}
@@ -0,0 +1,60 @@
+package study.datajpa.section18_result_cache;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 메서드 + 인자
+ * -> 컬렉션, 배열 인자는 복사해서 List 로 - 호출한 쪽이 나중에 바꿔도 key 가 바뀌지 않는다
+ * */
+final class ResultCacheKey {
+
+    private final Method method;
+    private final List<Object> args;
+    private final int hashCode;
+
+    ResultCacheKey(Method method, Object[] args) {
+        this.method = method;
+        this.args = new ArrayList<>(args.length);
+        for (Object arg : args) {
+            this.args.add(normalize(arg));
+        }
+        this.hashCode = Objects.hash(method, this.args);
+    }
+
+    private static Object normalize(Object arg) {
+        if (arg instanceof Collection) {
+            return new ArrayList<>((Collection<?>) arg);
+        }
+        if (arg instanceof Object[]) {
+            return Arrays.asList(((Object[]) arg).clone());
+        }
+        return arg;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ResultCacheKey)) {
+            return false;
+        }
+        ResultCacheKey that = (ResultCacheKey) o;
+        return method.equals(that.method) && args.equals(that.args);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName() + args;
+    }
+}
@@ -0,0 +1,32 @@
+package study.datajpa.section19_single_flight;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 같은 인자로 동시에 들어온 리포지토리 호출을 하나로 합친다 - SingleFlightAspect
+ *
+ * @SingleFlight
+ * Optional<Member> findById(Long id);
+ *
+ * -> 인기 회원 id 로 수백개 요청이 동시에 들어와도 DB 조회는 한번, 나머지는 그 결과를 같이 쓴다
+ * -> 이미 실행중인 호출만 합친다 (캐시가 아니다) - 끝나면 다음 호출은 다시 실행
+ *
+ * 설정 (application.yml) - 메서드별로 덮어쓸수 있다
+ * datajpa.single-flight.methods.MemberRepository.findById.enabled: false
+ * datajpa.single-flight.methods.MemberRepository.findById.timeout-millis: 200
+ * */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SingleFlight {
+
+    // 메트릭, 설정 이름 - 기본값 : 리포지토리 인터페이스 이름.메서드 이름
+    String name() default "";
+
+    // 먼저 실행한 호출을 기다리는 최대 시간 - 넘으면 기다리지 않고 직접 실행
+    long timeoutMillis() default 1000;
+}
@@ -0,0 +1,150 @@
+package study.datajpa.section19_single_flight;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.section17_second_level_cache.SecondLevelCacheLoader;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @SingleFlight 처리
+ *
+ * key : 메서드 + 인자 -> 같은 key 로 실행중인 호출이 있으면 그 결과를 같이 쓴다
+ *
+ * 엔티티 결과는 인스턴스를 그대로 넘기지 않는다
+ * -> leader 의 영속성 컨텍스트에 속한 엔티티라서 다른 스레드에서 지연 로딩하면 안된다
+ * -> follower 는 id 로 자기 영속성 컨텍스트 / 2차 캐시에서 다시 찾는다 (leader 가 조회하면서 2차 캐시에 올려둔다)
+ *
+ * 쓰기 트랜잭션 안에서는 합치지 않는다 - 커밋 전 값을 다른 요청에 주거나, 다른 요청의 엔티티를 수정하지 않도록
+ * */
+@Aspect
+@Component
+public class SingleFlightAspect {
+
+    private static final String PREFIX = "datajpa.single-flight.methods.";
+
+    private final SingleFlightGroup<List<Object>> group = new SingleFlightGroup<>();
+    private final Map<Method, Settings> settings = new ConcurrentHashMap<>();
+    private final Map<String, SingleFlightMetrics> metrics = new ConcurrentHashMap<>();
+
+    private final SecondLevelCacheLoader loader;
+    private final Environment environment;
+    private final boolean enabled;
+
+    @PersistenceUnit
+    private EntityManagerFactory emf;
+
+    public SingleFlightAspect(SecondLevelCacheLoader loader,
+                              Environment environment,
+                              @Value("${datajpa.single-flight.enabled:true}") boolean enabled) {
+        this.loader = loader;
+        this.environment = environment;
+        this.enabled = enabled;
+    }
+
+    @Around("@annotation(singleFlight)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, SingleFlight singleFlight) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Settings settings = this.settings.computeIfAbsent(method, m -> settings(m, singleFlight));
+        SingleFlightMetrics metrics = this.metrics.computeIfAbsent(settings.name, name -> new SingleFlightMetrics());
+
+        if (!settings.enabled || inWriteTransaction()) {
+            metrics.recordBypass();
+            return joinPoint.proceed();
+        }
+
+        List<Object> key = new ArrayList<>(joinPoint.getArgs().length + 1);
+        key.add(method);
+        Collections.addAll(key, joinPoint.getArgs());
+
+        SingleFlightGroup.Result result = group.execute(key, () -> proceed(joinPoint), settings.timeoutMillis);
+        metrics.record(result.getRole());
+        return result.isShared() ? own(result.getValue()) : result.getValue();
+    }
+
+    public Map<String, SingleFlightMetrics> metrics() {
+        return new TreeMap<>(metrics);
+    }
+
+    public int inFlight() {
+        return group.inFlight();
+    }
+
+    private Settings settings(Method method, SingleFlight singleFlight) {
+        String name = singleFlight.name().isEmpty()
+                ? method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                : singleFlight.name();
+        boolean methodEnabled = environment.getProperty(PREFIX + name + ".enabled", Boolean.class, true);
+        long timeoutMillis = environment.getProperty(PREFIX + name + ".timeout-millis", Long.class,
+                singleFlight.timeoutMillis());
+        return new Settings(name, enabled && methodEnabled, timeoutMillis);
+    }
+
+    private boolean inWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private Object proceed(ProceedingJoinPoint joinPoint) throws Exception {
+        try {
+            return joinPoint.proceed();
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    // leader 결과를 이 스레드의 것으로 - 엔티티는 id 로 다시 찾는다
+    private Object own(Object value) {
+        if (value instanceof Optional) {
+            return ((Optional<?>) value).map(this::own);
+        }
+        if (value != null && Hibernate.getClass(value).isAnnotationPresent(Entity.class)) {
+            Object id = emf.getPersistenceUnitUtil().getIdentifier(value);
+            List<?> found = loader.findAllByIdInOrder(Hibernate.getClass(value), List.of(id));
+            return found.isEmpty() ? null : found.get(0);
+        }
+        if (value instanceof List && !((List<?>) value).isEmpty()
+                && Hibernate.getClass(((List<?>) value).get(0)).isAnnotationPresent(Entity.class)) {
+            List<?> entities = (List<?>) value;
+            List<Object> ids = new ArrayList<>(entities.size());
+            for (Object entity : entities) {
+                ids.add(emf.getPersistenceUnitUtil().getIdentifier(entity));
+            }
+            return loader.findAllByIdInOrder(Hibernate.getClass(entities.get(0)), ids);
+        }
+        return value;
+    }
+
+    private static final class Settings {
+
+        private final String name;
+        private final boolean enabled;
+        private final long timeoutMillis;
+
+        Settings(String name, boolean enabled, long timeoutMillis) {
+            this.name = name;
+            this.enabled = enabled;
+            this.timeoutMillis = timeoutMillis;
+        }
+    }
+}
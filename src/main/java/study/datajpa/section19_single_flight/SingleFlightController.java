@@ -0,0 +1,23 @@
+package study.datajpa.section19_single_flight;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class SingleFlightController {
+
+    private final SingleFlightAspect singleFlightAspect;
+
+    @GetMapping("/monitoring/single-flight")
+    public Map<String, Object> singleFlight(){
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("inFlight", singleFlightAspect.inFlight());
+        singleFlightAspect.metrics().forEach((name, metrics) -> result.put(name, metrics.toMap()));
+        return result;
+    }
+}
@@ -0,0 +1,88 @@
+package study.datajpa.section19_single_flight;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * key 별로 실행중인 호출 하나만 - 나머지는 그 결과(또는 예외)를 기다린다
+ *
+ * 1. putIfAbsent 로 먼저 future 를 넣은 스레드가 실행 (leader)
+ * 2. 나머지는 future 를 기다린다 (follower) - timeout 이 지나면 직접 실행
+ * 3. leader 는 끝나면 map 에서 먼저 지우고 결과를 넣는다 -> 끝난 뒤에 들어온 호출은 새로 실행 (지난 결과를 주지 않는다)
+ * */
+public class SingleFlightGroup<K> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public Result execute(K key, Callable<?> call, long timeoutMillis) throws Exception {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, future);
+
+        if (running == null) {
+            return new Result(lead(key, future, call), Role.LEADER);
+        }
+
+        try {
+            return new Result(running.get(timeoutMillis, TimeUnit.MILLISECONDS), Role.FOLLOWER);
+        } catch (TimeoutException e) {
+            return new Result(call.call(), Role.TIMED_OUT);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private Object lead(K key, CompletableFuture<Object> future, Callable<?> call) throws Exception {
+        try {
+            Object value = call.call();
+            inFlight.remove(key, future);
+            future.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public enum Role {
+        LEADER, FOLLOWER, TIMED_OUT
+    }
+
+    public static final class Result {
+
+        private final Object value;
+        private final Role role;
+
+        Result(Object value, Role role) {
+            this.value = value;
+            this.role = role;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public Role getRole() {
+            return role;
+        }
+
+        public boolean isShared() {
+            return role == Role.FOLLOWER;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package study.datajpa.section19_single_flight;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 메서드 하나의 single-flight 통계
+ *
+ * coalescingRatio = shared / calls - 호출 중에서 DB 에 가지 않고 다른 호출 결과를 같이 쓴 비율
+ * */
+public class SingleFlightMetrics {
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    void record(SingleFlightGroup.Role role) {
+        calls.increment();
+        switch (role) {
+            case LEADER:
+                executions.increment();
+                break;
+            case FOLLOWER:
+                shared.increment();
+                break;
+            case TIMED_OUT:
+                executions.increment();
+                timeouts.increment();
+                break;
+        }
+    }
+
+    void recordBypass() {
+        calls.increment();
+        executions.increment();
+        bypassed.increment();
+    }
+
+    public double coalescingRatio() {
+        long total = calls.sum();
+        return total == 0 ? 0 : (double) shared.sum() / total;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("calls", calls.sum());
+        result.put("executions", executions.sum());
+        result.put("shared", shared.sum());
+        result.put("timeouts", timeouts.sum());
+        result.put("bypassed", bypassed.sum());
+        result.put("coalescingRatio", coalescingRatio());
+        return result;
+    }
+}
@@ -0,0 +1,27 @@
+package study.datajpa.section1_4_repository;
+
+import study.datajpa.section9_bulk.MemberImportRow;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 확장 기능 - 회원 bulk import
+ *
+ * 사용자 정의 인터페이스 명 + Impl (MemberBulkImportRepositoryImpl) 방식
+ * -> MemberRepository 가 상속해서 같이 사용한다
+ * */
+public interface MemberBulkImportRepository {
+
+    /**
+     * 팀 이름 -> team_id, 없는 팀은 새로 저장한다 (in 절 조회 1번)
+     */
+    Map<String, Long> resolveTeamIds(Collection<String> teamNames);
+
+    /**
+     * JDBC batch insert - 한 트랜잭션에서 rows 전체를 저장
+     * @param teamIds resolveTeamIds 결과 - rows 의 teamName 이 모두 들어 있어야 한다
+     */
+    int insertMembers(List<MemberImportRow> rows, Map<String, Long> teamIds);
+}
@@ -0,0 +1,163 @@
+package study.datajpa.section1_4_repository;
+
+import org.hibernate.Cache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.PooledLoSequenceGenerator;
+import study.datajpa.entity.Team;
+import study.datajpa.entity.WriteVersionListener;
+import study.datajpa.section16_changelog.ChangeAction;
+import study.datajpa.section16_changelog.ChangeLogEvent;
+import study.datajpa.section16_changelog.ChangeLogPipeline;
+import study.datajpa.section9_bulk.MemberImportRow;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 회원 bulk import 구현 - JPA 가 아닌 JDBC batch insert
+ *
+ * em.persist 를 한건씩 하면
+ * -> persist 마다 시퀀스 조회(call next value for hibernate_sequence) + insert 1번 = row 당 2번 왕복
+ * -> 영속성 컨텍스트에 엔티티가 계속 쌓인다
+ *
+ * 1. member_seq 에서 필요한 구간(allocationSize 단위) 만큼 쿼리 1번으로 가져온다
+ *  -> pooled-lo 와 같은 방식 - 시퀀스 값 v 하나가 v ~ v + allocationSize - 1 구간
+ * 2. 같은 insert 문을 JdbcTemplate.batchUpdate 로 한번에 보낸다 (ordered - insert 문 하나로만 구성)
+ * 3. 생성일, 수정일은 chunk 단위로 같은 시간 사용 (BaseTimeEntity 컬럼)
+ *
+ * > 주의: JPA 를 거치지 않으므로 엔티티 리스너(Auditing, WriteVersionListener, ChangeLogListener)가 동작하지 않는다
+ * -> Member 버전은 직접 올려준다
+ * -> 변경 이력은 insertMembers 호출마다 BULK_INSERT 한건 (row 마다 남기지 않는다)
+ * -> 2차 캐시의 Team.members 컬렉션도 직접 evict 한다 (JPQL 벌크 연산은 hibernate 가 해주지만 JDBC 는 모른다)
+ * -> JdbcTemplate 은 JpaTransactionManager 가 연 트랜잭션의 커넥션을 같이 사용한다
+ * */
+public class MemberBulkImportRepositoryImpl implements MemberBulkImportRepository {
+
+    private static final String INSERT_MEMBER =
+            "insert into member (member_id, username, age, team_id, created_date, last_modified_date)" +
+                    " values (?, ?, ?, ?, ?, ?)";
+    private static final String TEAM_MEMBERS_ROLE = Team.class.getName() + ".members";
+    private static final int[] INSERT_MEMBER_TYPES =
+            {Types.BIGINT, Types.VARCHAR, Types.INTEGER, Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP};
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeLogPipeline changeLogPipeline;
+    //Member 의 PooledLoSequenceGenerator 와 같은 값이어야 한다
+    private final int allocationSize;
+
+    public MemberBulkImportRepositoryImpl(EntityManager em, JdbcTemplate jdbcTemplate, ChangeLogPipeline changeLogPipeline,
+                                          @Value("${spring.jpa.properties." + PooledLoSequenceGenerator.ALLOCATION_SIZE_SETTING
+                                                  + ":" + PooledLoSequenceGenerator.DEFAULT_ALLOCATION_SIZE + "}") int allocationSize) {
+        this.em = em;
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeLogPipeline = changeLogPipeline;
+        this.allocationSize = allocationSize;
+    }
+
+    @Override
+    @Transactional
+    public Map<String, Long> resolveTeamIds(Collection<String> teamNames) {
+        Map<String, Long> teamIds = new HashMap<>();
+        if (teamNames.isEmpty()) {
+            return teamIds;
+        }
+
+        //팀 이름은 unique 가 아니다 - 같은 이름이 여러개면 먼저 만든 팀 사용
+        List<Object[]> found = em.createQuery(
+                        "select t.name, min(t.id) from Team t where t.name in :names group by t.name", Object[].class)
+                .setParameter("names", teamNames)
+                .getResultList();
+        for (Object[] row : found) {
+            teamIds.put((String) row[0], (Long) row[1]);
+        }
+
+        List<Team> created = new ArrayList<>();
+        for (String teamName : teamNames) {
+            if (!teamIds.containsKey(teamName)) {
+                Team team = new Team(teamName);
+                em.persist(team);
+                created.add(team);
+                teamIds.put(teamName, team.getId());
+            }
+        }
+        //member insert 전에 team row 가 있어야 한다 (FK)
+        em.flush();
+        //여기서 만든 팀만 detach - clear() 는 호출한 쪽 트랜잭션이 관리하던 엔티티까지 준영속으로 만든다 (이후 변경 유실)
+        created.forEach(em::detach);
+        return teamIds;
+    }
+
+    @Override
+    @Transactional
+    public int insertMembers(List<MemberImportRow> rows, Map<String, Long> teamIds) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = allocateMemberIds(rows.size());
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            MemberImportRow row = rows.get(i);
+            Long teamId = row.getTeamName() == null ? null : teamIds.get(row.getTeamName());
+            batchArgs.add(new Object[]{ids.get(i), row.getUsername(), row.getAge(), teamId, now, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_MEMBER, batchArgs, INSERT_MEMBER_TYPES);
+
+        WriteVersionListener.bumpTransactional(Member.class);
+        evictTeamMembers(batchArgs);
+        changeLogPipeline.record(new ChangeLogEvent("Member", null, ChangeAction.BULK_INSERT,
+                "method=insertMembers, rows=" + rows.size() + ", ids=" + ids.get(0) + ".." + ids.get(ids.size() - 1)));
+        return rows.size();
+    }
+
+    //2차 캐시의 Team.members(팀원 id 목록) 에는 방금 넣은 회원이 없다 - 회원이 추가된 팀만 evict
+    private void evictTeamMembers(List<Object[]> batchArgs) {
+        Set<Long> teamIds = new HashSet<>();
+        for (Object[] args : batchArgs) {
+            if (args[3] != null) {
+                teamIds.add((Long) args[3]);
+            }
+        }
+        Cache cache = em.getEntityManagerFactory().getCache().unwrap(Cache.class);
+        teamIds.forEach(teamId -> cache.evictCollectionData(TEAM_MEMBERS_ROLE, teamId));
+        //커밋 전에 다른 트랜잭션이 예전 목록을 다시 캐시에 올릴수 있다 - 커밋 후 한번 더
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                teamIds.forEach(teamId -> cache.evictCollectionData(TEAM_MEMBERS_ROLE, teamId));
+            }
+        });
+    }
+
+    //시퀀스 호출 1번에 allocationSize 개 - 다른 서버, 다른 persist 와 구간이 겹치지 않는다
+    private List<Long> allocateMemberIds(int count) {
+        int blocks = (count + allocationSize - 1) / allocationSize;
+        List<Long> blockStarts = jdbcTemplate.queryForList(
+                "select next value for member_seq from system_range(1, ?)", Long.class, blocks);
+
+        List<Long> ids = new ArrayList<>(count);
+        for (Long blockStart : blockStarts) {
+            for (int i = 0; i < allocationSize && ids.size() < count; i++) {
+                ids.add(blockStart + i);
+            }
+        }
+        return ids;
+    }
+}
@@ -2,9 +2,15 @@ package study.datajpa.section1_4_repository;
 
 import org.springframework.stereotype.Repository;
 import study.datajpa.entity.Member;
+import study.datajpa.entity.WriteVersionListener;
+import study.datajpa.section16_changelog.ChangeAction;
+import study.datajpa.section16_changelog.ChangeLogEvent;
+import study.datajpa.section16_changelog.ChangeLogPipeline;
+import study.datajpa.section21_batch_loader.BatchLoaders;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +21,14 @@ public class MemberJpaRepository {
     @PersistenceContext
     private EntityManager em;
 
+    private final BatchLoaders batchLoaders;
+    private final ChangeLogPipeline changeLogPipeline;
+
+    public MemberJpaRepository(BatchLoaders batchLoaders, ChangeLogPipeline changeLogPipeline) {
+        this.batchLoaders = batchLoaders;
+        this.changeLogPipeline = changeLogPipeline;
+    }
+
 
     public Member save(Member member){
         em.persist(member);
@@ -36,6 +50,12 @@ public class MemberJpaRepository {
         return Optional.ofNullable(member);
     }
 
+    //id 여러개 - em.find 를 id 마다 하지 않고 in 쿼리 한번 (영속성 컨텍스트에 있는 것은 그대로)
+    //입력 순서대로, 없는 id 는 null - 같은 트랜잭션에서 load() 로 모아둔 id 도 같이 조회 (BatchLoaders)
+    public List<Member> findAllById(Collection<Long> ids){
+        return batchLoaders.loader(Member.class).loadMany(ids);
+    }
+
     public long count(){
         return em.createQuery("select count(m) from Member m", Long.class)
                 .getSingleResult();
@@ -80,6 +100,10 @@ public class MemberJpaRepository {
         int resultCnt = em.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age")
                 .setParameter("age", age)
                 .executeUpdate();
+        //벌크 update 는 엔티티 리스너를 거치지 않는다 - Member 캐시(@RepositoryResultCache 등) 무효화, 변경 이력
+        WriteVersionListener.bumpTransactional(Member.class);
+        changeLogPipeline.record(new ChangeLogEvent("Member", null, ChangeAction.BULK_UPDATE,
+                "method=MemberJpaRepository.bulkAgePlus, rows=" + resultCnt + ", age>=" + age));
         return resultCnt;
     }
 }
@@ -0,0 +1,17 @@
+package study.datajpa.section1_4_repository;
+
+import java.util.List;
+
+/**
+ * 확장 기능 - 생성된 프로젝션 매퍼로 조회 (@GenerateMapper)
+ *
+ * findProjectionClassTypeByUsername(username, type) 와 같은 동적 프로젝션인데
+ * -> 프록시, reflection 없이 컴파일 시점에 생성된 매퍼를 사용한다
+ * -> 중첩 프로젝션(getTeam().getName())은 left join 해서 필요한 컬럼만 select
+ * -> type 에 @GenerateMapper 가 없으면 InvalidDataAccessApiUsageException
+ *    (구현체는 IllegalArgumentException - 리포지토리 프록시가 스프링 예외로 변환, cause 로 남는다)
+ * */
+public interface MemberProjectionRepository {
+
+    <T> List<T> findMappedByUsername(String username, Class<T> type);
+}
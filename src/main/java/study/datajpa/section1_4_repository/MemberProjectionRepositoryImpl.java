@@ -0,0 +1,45 @@
+package study.datajpa.section1_4_repository;
+
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.projection.ProjectionMapper;
+import study.datajpa.projection.ProjectionMappers;
+import study.datajpa.section12_projection.ProjectionQueries;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * 생성된 매퍼 + 필요한 컬럼만 select
+ *
+ * 중첩 프로젝션(NestedClosedProjections)도 select 한번
+ * -> select m.username, m_j1.name from Member m left join m.team m_j1 where m.username = :username
+ * -> Team 엔티티를 만들지 않는다 - 영속성 컨텍스트에 아무것도 남지 않는다
+ *
+ * -> 매퍼, JPQL 문자열은 프로젝션 타입별로 한번만 만들고 ClassValue 에 캐시
+ * */
+@Transactional(readOnly = true)
+public class MemberProjectionRepositoryImpl implements MemberProjectionRepository {
+
+    private static final ClassValue<String> FIND_BY_USERNAME = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return ProjectionQueries.selectFrom("Member", "m", ProjectionMappers.get(type)) +
+                    " where m.username = :username";
+        }
+    };
+
+    private final EntityManager em;
+
+    public MemberProjectionRepositoryImpl(EntityManager em) {
+        this.em = em;
+    }
+
+    @Override
+    public <T> List<T> findMappedByUsername(String username, Class<T> type) {
+        ProjectionMapper<T> mapper = ProjectionMappers.get(type);
+        List<?> rows = em.createQuery(FIND_BY_USERNAME.get(type))
+                .setParameter("username", username)
+                .getResultList();
+        return ProjectionQueries.map(rows, mapper);
+    }
+}
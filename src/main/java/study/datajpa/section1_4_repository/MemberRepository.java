@@ -7,16 +7,22 @@ import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
 import study.datajpa.section7_other_features.MemberProjection;
 import study.datajpa.section7_other_features.NestedClosedProjections;
 import study.datajpa.section7_other_features.UsernameOnly;
 import study.datajpa.section7_other_features.UsernameOnlyDto;
+import study.datajpa.section14_persistence_context.EvictAfterModifying;
+import study.datajpa.section18_result_cache.RepositoryResultCache;
+import study.datajpa.section19_single_flight.SingleFlight;
+import study.datajpa.section8_paging.TwoPhasePaging;
 
 import javax.persistence.LockModeType;
 import javax.persistence.QueryHint;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * springDataJPA 사용
@@ -603,7 +609,12 @@ import java.util.Optional;
 
 
 
-public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom, JpaSpecificationExecutor{
+public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom, MemberBulkImportRepository, MemberProjectionRepository, JpaSpecificationExecutor{
+
+    //동시에 같은 id 로 조회하면 DB 조회 한번 - /members/{id}, /members2/{id} (도메인 클래스 컨버터도 이 메서드를 쓴다)
+    @Override
+    @SingleFlight
+    Optional<Member> findById(Long id);
 
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age);
 
@@ -620,15 +631,19 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 
 //------------------------------
 //  @Query, 값,
+    @RepositoryResultCache(dependsOn = Member.class) // 결과 캐시 - Member 가 바뀌면 무효화
     @Query("select m.username from Member m")
     List<String> findUsernameList();
 
     //  DTO 조회하기 - 마치 생성자로 new 하는것처럼 매칭해서 적어줘야한다
+    @RepositoryResultCache(dependsOn = {Member.class, Team.class})
     @Query("select new study.datajpa.dto.MemberDto( m.id, m.username, t.name ) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 //---------------------------------------
 
 //    컬렉션 파라미터 바인딩 Collection 타입으로 in절 지원 - 알아서 () , 등 처리가 이루어진다
+    // 엔티티 결과는 id 만 캐시 - 꺼낼때 영속성 컨텍스트 / 2차 캐시에서 찾는다
+    @RepositoryResultCache(dependsOn = Member.class)
     @Query("select m from Member m where m.username in :names ")
     List<Member> findByNames(@Param("names") Collection<String> names);
 
@@ -650,6 +665,9 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     // slice 는 3개를 요청하면 limit 에 +1 해서 4개를 가져온다 - 전체를 가져오지 않는다 - totalcount 쿼리 없이 사용한다
     Slice<Member> findSliceByAge(int age, Pageable pageable);
     List<Member> findListByAge(int age, Pageable pageable); // 단순히 몇개 가져와라 정도로 사용할때 페이징 불가
+    // count 를 따로 구할때 사용 (MemberPagingService) - content 만 List 로, count 는 별도 메서드로
+    List<Member> findListBy(Pageable pageable);
+    long countByAge(int age);
 
     //-------------------
     //벌크성 쿼리
@@ -657,6 +675,12 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query(value = "update Member m set m.age = m.age + 1 where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
+    // clear 대신 영향받은 Member 만 정리 - 다른 엔티티(Team 등)와 조건에 안맞는 Member 는 그대로 영속 상태
+    @Modifying
+    @EvictAfterModifying(value = Member.class, where = "e.age >= :age", refresh = true)
+    @Query(value = "update Member m set m.age = m.age + 1 where m.age >= :age")
+    int bulkAgePlusSelective(@Param("age") int age);
+
     //------------------
     //EntityGraph, 페치 조인
     @Query("select m from Member m left join fetch m.team")
@@ -701,6 +725,7 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     List<UsernameOnlyDto> findProjectionClassByUsername(@Param("username") String username);
     //동적 projection -  //중첩구조 projection 테스트 가능
     <T> List<T> findProjectionClassTypeByUsername(@Param("username") String username,Class<T> type);
+    // 프록시/reflection 없는 버전 - MemberProjectionRepository.findMappedByUsername(username, type)
 
     //-----네이티브쿼리
     @Query(value = "select * from member where username = ?", nativeQuery = true)
@@ -713,4 +738,52 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
             " from member m left join team t "
             , countQuery = "select count(*) from member", nativeQuery = true)
     Page<MemberProjection> findByNativeProjection(Pageable pageable);
+    //count 없이 content 만 - MemberPagingService 에서 count 를 따로(동시에) 구한다
+    //네이티브 쿼리라 pageable 의 sort 는 사용할수 없다 - limit/offset 만 적용
+    @Query(value = "select m.member_id as id, m.username, t.name as teamName " +
+            " from member m left join team t on m.team_id = t.team_id", nativeQuery = true)
+    List<MemberProjection> findListByNativeProjection(Pageable pageable);
+
+    //-----전체 export 용 스트림 - 한번에 다 올리지 않고 커서(ScrollableResults)로 조금씩 읽는다
+    // -> fetchSize : JDBC 드라이버가 한번에 가져올 row 수
+    // -> DTO 로 바로 조회해서 영속성 컨텍스트에 엔티티가 쌓이지 않는다 (readOnly, 2차 캐시 사용 안함)
+    // -> Stream 은 트랜잭션 안에서 사용하고 꼭 close 해야 한다 (try-with-resources)
+    @QueryHints(value = {
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheable", value = "false")
+    })
+    @Query("select new study.datajpa.dto.MemberDto( m.id, m.username, t.name )" +
+            " from Member m left join m.team t order by m.id")
+    Stream<MemberDto> streamAllMemberDto();
+
+    //-----keyset(seek) 페이징 - offset 없이 마지막으로 본 (username, id) 다음부터 가져온다
+    // -> offset 은 앞의 row 를 모두 읽고 버리기 때문에 뒤 페이지로 갈수록 느려진다
+    // -> pageable 은 limit 용도로만 사용 (PageRequest.of(0, size)) - 정렬은 쿼리에 고정
+    // -> username 이 null 인 회원은 비교가 안되므로 제외된다
+    @Query("select m from Member m where m.username is not null order by m.username asc, m.id asc")
+    List<Member> findKeysetFirst(Pageable pageable);
+
+    // username >= :username 조건을 앞에 두어 (username, member_id) 인덱스를 범위 조회로 탈수 있게 한다
+    @Query("select m from Member m" +
+            " where m.username >= :username" +
+            " and (m.username > :username or m.id > :id)" +
+            " order by m.username asc, m.id asc")
+    List<Member> findKeysetAfter(@Param("username") String username, @Param("id") Long id, Pageable pageable);
+
+    //-----ID 먼저 페이징 -> 해당 ID 만 페치 조인 (2단계 페이징)
+    // 컬렉션 페치 조인 + 페이징은 메모리에서 페이징 해버린다 (firstResult/maxResults specified with collection fetch; applying in memory!)
+    // 페치 조인 없이 페이징 하면 team 지연로딩으로 N + 1
+    // -> 1. member_id 만 페이징 (+ count)  2. 그 ID 들만 in 절로 한번에 페치 조인
+    @Query(value = "select m.id from Member m",
+            countQuery = "select count(m) from Member m")
+    Page<Long> findMemberIds(Pageable pageable);
+
+    @Query("select m from Member m left join fetch m.team where m.id in :ids")
+    List<Member> findWithTeamByIdIn(@Param("ids") Collection<Long> ids);
+
+    //인터페이스 default 메서드도 리포지토리 메서드로 사용할수 있다
+    default Page<Member> findAllWithTeam(Pageable pageable) {
+        return TwoPhasePaging.load(findMemberIds(pageable), this::findWithTeamByIdIn, Member::getId);
+    }
 }
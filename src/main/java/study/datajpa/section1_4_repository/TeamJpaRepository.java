@@ -2,9 +2,11 @@ package study.datajpa.section1_4_repository;
 
 import org.springframework.stereotype.Repository;
 import study.datajpa.entity.Team;
+import study.datajpa.section21_batch_loader.BatchLoaders;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +17,12 @@ public class TeamJpaRepository {
     @PersistenceContext
     private EntityManager em;
 
+    private final BatchLoaders batchLoaders;
+
+    public TeamJpaRepository(BatchLoaders batchLoaders) {
+        this.batchLoaders = batchLoaders;
+    }
+
     public Team save(Team team){
         em.persist(team);
         return team;
@@ -34,6 +42,12 @@ public class TeamJpaRepository {
         return Optional.ofNullable(team);
     }
 
+    //id 여러개 - em.find 를 id 마다 하지 않고 in 쿼리 한번 (영속성 컨텍스트에 있는 것은 그대로)
+    //입력 순서대로, 없는 id 는 null - 같은 트랜잭션에서 load() 로 모아둔 id 도 같이 조회 (BatchLoaders)
+    public List<Team> findAllById(Collection<Long> ids){
+        return batchLoaders.loader(Team.class).loadMany(ids);
+    }
+
     public long count(){
         return em.createQuery("select count(t) from Team t", Long.class).getSingleResult();
     }
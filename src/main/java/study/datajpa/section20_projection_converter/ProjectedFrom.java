@@ -0,0 +1,25 @@
+package study.datajpa.section20_projection_converter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * id 로 엔티티 대신 프로젝션(DTO)을 바인딩 - ProjectionConverter
+ *
+ * @GetMapping("/members4/{id}")
+ * public String findMember4(@PathVariable("id") @ProjectedFrom(Member.class) UsernameOnlyDto member)
+ *
+ * -> 프로젝션 타입에는 @GenerateMapper 가 있어야 한다 (필요한 컬럼만 select)
+ * -> 도메인 클래스 컨버터(findMember2)와 달리 엔티티를 만들지 않고, 결과를 캐시한다
+ * */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ProjectedFrom {
+
+    // 조회할 루트 엔티티
+    Class<?> value();
+}
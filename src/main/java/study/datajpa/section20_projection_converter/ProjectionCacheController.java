@@ -0,0 +1,20 @@
+package study.datajpa.section20_projection_converter;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.support.CacheStatsResponse;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class ProjectionCacheController {
+
+    private final ProjectionConverter projectionConverter;
+
+    @GetMapping("/monitoring/projection-cache")
+    public Map<String, Object> projectionCache(){
+        return CacheStatsResponse.of(projectionConverter.size(), projectionConverter.stats());
+    }
+}
@@ -0,0 +1,224 @@
+package study.datajpa.section20_projection_converter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.ConditionalGenericConverter;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.WriteVersionListener;
+import study.datajpa.projection.ProjectionMapper;
+import study.datajpa.projection.ProjectionMappers;
+import study.datajpa.section12_projection.ProjectionQueries;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.ManagedType;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @ProjectedFrom 이 붙은 파라미터 - String id -> 프로젝션
+ *
+ * 1. 캐시 (프로젝션 타입 + 엔티티 + id) - 저장할때의 엔티티 버전과 지금 버전이 같으면 그대로
+ * 2. 없으면 필요한 컬럼만 select 한번 -> 생성된 매퍼로 변환 (영속성 컨텍스트에 엔티티가 남지 않는다)
+ * 3. 의존 엔티티 - 루트 + 중첩 프로젝션 경로의 엔티티 (team.name -> Team)
+ *    -> 이 중 하나라도 저장/수정/삭제되면 (WriteVersionListener) 버린다
+ *
+ * 없는 id 는 null -> @PathVariable 이 필수라서 400 (도메인 클래스 컨버터와 같다), 캐시하지 않는다
+ * 캐시한 프로젝션은 요청끼리 같은 객체를 쓴다 - 불변 DTO, 인터페이스 프로젝션만
+ * */
+@Component
+public class ProjectionConverter implements ConditionalGenericConverter {
+
+    private final Cache<Key, Cached> cache;
+    private final Map<Query, QueryPlan> plans = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public ProjectionConverter(@Value("${datajpa.projection-cache.max-entries:10000}") long maxEntries,
+                               @Value("${datajpa.projection-cache.ttl-millis:60000}") long ttlMillis) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Set<ConvertiblePair> getConvertibleTypes() {
+        return Set.of(new ConvertiblePair(String.class, Object.class));
+    }
+
+    @Override
+    public boolean matches(TypeDescriptor sourceType, TypeDescriptor targetType) {
+        return targetType.hasAnnotation(ProjectedFrom.class);
+    }
+
+    @Override
+    public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+        if (source == null || ((String) source).isEmpty()) {
+            return null;
+        }
+        QueryPlan plan = plans.computeIfAbsent(
+                new Query(targetType.getAnnotation(ProjectedFrom.class).value(), targetType.getType()), this::plan);
+        Object id = DefaultConversionService.getSharedInstance().convert(source, plan.idType);
+        Key key = new Key(plan.query, id);
+        long[] versions = plan.versions();
+
+        Cached cached = cache.getIfPresent(key);
+        if (cached != null && Arrays.equals(cached.versions, versions)) {
+            return cached.value;
+        }
+
+        List<?> found = ProjectionQueries.map(em.createQuery(plan.jpql)
+                .setParameter("id", id)
+                .getResultList(), plan.mapper);
+        if (found.isEmpty()) {
+            return null;
+        }
+        Object value = found.get(0);
+        if (!plan.writtenInCurrentTransaction()) {
+            cache.put(key, new Cached(value, versions));
+        }
+        return value;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    private QueryPlan plan(Query query) {
+        EntityType<?> entity = em.getMetamodel().entity(query.entityType);
+        ProjectionMapper<?> mapper = ProjectionMappers.get(query.projectionType);
+        String idName = entity.getId(entity.getIdType().getJavaType()).getName();
+        String jpql = ProjectionQueries.selectFrom(entity.getName(), "e", mapper) + " where e." + idName + " = :id";
+
+        Set<Class<?>> dependsOn = new LinkedHashSet<>();
+        dependsOn.add(query.entityType);
+        for (String property : mapper.properties()) {
+            ManagedType<?> owner = entity;
+            String[] path = property.split("\\.");
+            for (int i = 0; i < path.length - 1; i++) {
+                Attribute<?, ?> attribute = owner.getAttribute(path[i]);
+                if (attribute.isAssociation()) {
+                    dependsOn.add(attribute.getJavaType());
+                }
+                owner = em.getMetamodel().managedType(attribute.getJavaType());
+            }
+        }
+        return new QueryPlan(query, jpql, mapper, entity.getIdType().getJavaType(), dependsOn.toArray(new Class<?>[0]));
+    }
+
+    private static final class Query {
+
+        private final Class<?> entityType;
+        private final Class<?> projectionType;
+
+        Query(Class<?> entityType, Class<?> projectionType) {
+            this.entityType = entityType;
+            this.projectionType = projectionType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Query)) return false;
+            Query query = (Query) o;
+            return entityType == query.entityType && projectionType == query.projectionType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityType, projectionType);
+        }
+    }
+
+    private static final class QueryPlan {
+
+        private final Query query;
+        private final String jpql;
+        private final ProjectionMapper<?> mapper;
+        private final Class<?> idType;
+        private final Class<?>[] dependsOn;
+
+        QueryPlan(Query query, String jpql, ProjectionMapper<?> mapper, Class<?> idType, Class<?>[] dependsOn) {
+            this.query = query;
+            this.jpql = jpql;
+            this.mapper = mapper;
+            this.idType = idType;
+            this.dependsOn = dependsOn;
+        }
+
+        long[] versions() {
+            long[] versions = new long[dependsOn.length];
+            for (int i = 0; i < dependsOn.length; i++) {
+                versions[i] = WriteVersionListener.current(dependsOn[i]);
+            }
+            return versions;
+        }
+
+        boolean writtenInCurrentTransaction() {
+            for (Class<?> type : dependsOn) {
+                if (WriteVersionListener.isWrittenInCurrentTransaction(type)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Key {
+
+        private final Query query;
+        private final Object id;
+
+        Key(Query query, Object id) {
+            this.query = query;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return query.equals(key.query) && id.equals(key.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * query.hashCode() + id.hashCode();
+        }
+    }
+
+    private static final class Cached {
+
+        private final Object value;
+        private final long[] versions;
+
+        Cached(Object value, long[] versions) {
+            this.value = value;
+            this.versions = versions;
+        }
+    }
+}
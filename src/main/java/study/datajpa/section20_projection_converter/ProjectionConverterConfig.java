@@ -0,0 +1,22 @@
+package study.datajpa.section20_projection_converter;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * mvcConversionService 에 ProjectionConverter 등록
+ * -> 나중에 등록한 컨버터가 먼저 - String -> DTO 생성자(ObjectToObjectConverter) 보다 먼저 시도된다
+ * */
+@Configuration
+@RequiredArgsConstructor
+public class ProjectionConverterConfig implements WebMvcConfigurer {
+
+    private final ProjectionConverter projectionConverter;
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(projectionConverter);
+    }
+}
@@ -0,0 +1,110 @@
+package study.datajpa.section21_batch_loader;
+
+import org.hibernate.Session;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * id 조회를 모아서 한번에 - DataLoader 방식
+ *
+ * BatchLoader<Member> loader = batchLoaders.loader(Member.class);
+ * CompletableFuture<Member> a = loader.load(1L);
+ * CompletableFuture<Member> b = loader.load(2L);
+ * loader.dispatch(); // select ... where m.member_id in (1, 2) 한번
+ *
+ * 1. load() 는 id 를 모으기만 한다 - 같은 id 는 같은 future (중복 제거)
+ * 2. dispatch() 에서 Session.byMultipleIds().multiLoad() 한번
+ *    -> enableSessionCheck : 영속성 컨텍스트에 이미 있는 엔티티는 그대로 쓰고 없는 것만 in 쿼리
+ *    -> enableOrderedReturn : id 순서대로, 없는 id 는 null
+ *    -> in 절이 너무 길어지지 않게 maxBatchSize 씩 나눠서
+ *    -> 트랜잭션 밖이면 readOnly 트랜잭션으로 (SimpleJpaRepository.findById 와 같다) - OSIV 면 요청의 영속성 컨텍스트에 남는다
+ *
+ * 요청(트랜잭션) 하나에서 한 스레드로 쓴다 - thread-safe 하지 않다
+ * */
+public class BatchLoader<T> {
+
+    private final Class<T> entityType;
+    private final EntityManager em;
+    private final TransactionTemplate readOnlyTx;
+    private final int maxBatchSize;
+    private final Map<Object, CompletableFuture<T>> pending = new LinkedHashMap<>();
+
+    BatchLoader(Class<T> entityType, EntityManager em, TransactionTemplate readOnlyTx, int maxBatchSize) {
+        this.entityType = entityType;
+        this.em = em;
+        this.readOnlyTx = readOnlyTx;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public CompletableFuture<T> load(Object id) {
+        return pending.computeIfAbsent(id, key -> new CompletableFuture<>());
+    }
+
+    /**
+     * 입력 순서대로 - 없는 id 는 null, 같은 id 가 여러번 있으면 같은 엔티티
+     * 앞서 load() 로 모아둔 id 도 같이 조회된다
+     */
+    public List<T> loadMany(Collection<?> ids) {
+        List<CompletableFuture<T>> futures = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            futures.add(load(id));
+        }
+        dispatch();
+
+        List<T> result = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            result.add(future.join());
+        }
+        return result;
+    }
+
+    public void dispatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Object, CompletableFuture<T>> batch = new LinkedHashMap<>(pending);
+        pending.clear();
+
+        List<Object> ids = new ArrayList<>(batch.keySet());
+        try {
+            List<T> found = readOnlyTx.execute(status -> em.unwrap(Session.class)
+                    .byMultipleIds(entityType)
+                    .enableSessionCheck(true)
+                    .enableOrderedReturn(true)
+                    .withBatchSize(maxBatchSize)
+                    .multiLoad(ids));
+            for (int i = 0; i < ids.size(); i++) {
+                batch.get(ids.get(i)).complete(found.get(i));
+            }
+        } catch (RuntimeException e) {
+            for (CompletableFuture<T> future : batch.values()) {
+                future.completeExceptionally(e);
+            }
+            throw e;
+        }
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    // 범위(트랜잭션, 요청)가 끝날때까지 dispatch 되지 않은 조회 - 기다리는 쪽이 영원히 기다리지 않도록
+    void cancel() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        IllegalStateException notDispatched =
+                new IllegalStateException(entityType.getSimpleName() + " 조회가 dispatch 되지 않았습니다. ids=" + pending.keySet());
+        for (CompletableFuture<T> future : pending.values()) {
+            future.completeExceptionally(notDispatched);
+        }
+        pending.clear();
+    }
+}
@@ -0,0 +1,84 @@
+package study.datajpa.section21_batch_loader;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import study.datajpa.support.TransactionScoped;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 엔티티 타입별 BatchLoader - 트랜잭션(없으면 요청) 마다 하나
+ *
+ * 같은 범위 안에서는 어디서 loader() 를 불러도 같은 BatchLoader
+ * -> 서비스 여러곳에서 load() 한 id 를 dispatch() 한번에 조회
+ *
+ * 1. 트랜잭션 안 : 트랜잭션마다 보관 (TransactionScoped), 트랜잭션이 끝나면 제거
+ * 2. 트랜잭션 밖, 웹 요청 안 : 요청 attribute 로 보관 (OSIV - 요청 동안 같은 영속성 컨텍스트)
+ * 3. 둘다 아니면 매번 새로
+ *
+ * 범위가 끝날때 dispatch 되지 않은 future 는 IllegalStateException 으로 끝낸다
+ * */
+@Component
+public class BatchLoaders {
+
+    private static final String REQUEST_ATTRIBUTE = BatchLoaders.class.getName() + ".loaders";
+
+    private final TransactionScoped<Map<Class<?>, BatchLoader<?>>> perTransaction =
+            new TransactionScoped<>(HashMap::new, (loaders, status) -> cancelAll(loaders));
+    private final TransactionTemplate readOnlyTx;
+    private final int maxBatchSize;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public BatchLoaders(PlatformTransactionManager transactionManager,
+                        @Value("${datajpa.batch-loader.max-batch-size:1000}") int maxBatchSize) {
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> BatchLoader<T> loader(Class<T> entityType) {
+        Map<Class<?>, BatchLoader<?>> loaders = scope();
+        if (loaders == null) {
+            return new BatchLoader<>(entityType, em, readOnlyTx, maxBatchSize);
+        }
+        return (BatchLoader<T>) loaders.computeIfAbsent(entityType, type -> new BatchLoader<>(entityType, em, readOnlyTx, maxBatchSize));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Class<?>, BatchLoader<?>> scope() {
+        Map<Class<?>, BatchLoader<?>> loaders = perTransaction.get();
+        if (loaders != null) {
+            return loaders;
+        }
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            loaders = (Map<Class<?>, BatchLoader<?>>) request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (loaders == null) {
+                Map<Class<?>, BatchLoader<?>> created = new HashMap<>();
+                request.setAttribute(REQUEST_ATTRIBUTE, created, RequestAttributes.SCOPE_REQUEST);
+                request.registerDestructionCallback(REQUEST_ATTRIBUTE, () -> cancelAll(created), RequestAttributes.SCOPE_REQUEST);
+                loaders = created;
+            }
+            return loaders;
+        }
+
+        return null;
+    }
+
+    private static void cancelAll(Map<Class<?>, BatchLoader<?>> loaders) {
+        for (BatchLoader<?> loader : loaders.values()) {
+            loader.cancel();
+        }
+    }
+}
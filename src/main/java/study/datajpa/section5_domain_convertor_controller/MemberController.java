@@ -2,17 +2,44 @@ package study.datajpa.section5_domain_convertor_controller;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.section13_specification.MemberQuerySpecs;
+import study.datajpa.section13_specification.MemberSearchCondition;
+import study.datajpa.section13_specification.SpecificationQueryExecutor;
+import study.datajpa.section17_second_level_cache.SecondLevelCacheLoader;
 import study.datajpa.section1_4_repository.MemberRepository;
+import study.datajpa.section20_projection_converter.ProjectedFrom;
+import study.datajpa.section7_other_features.UsernameOnlyDto;
+import study.datajpa.section8_paging.CountMode;
+import study.datajpa.section8_paging.CountedPage;
+import study.datajpa.section8_paging.CursorResult;
+import study.datajpa.section8_paging.MemberCursor;
+import study.datajpa.section8_paging.MemberPagingService;
+import study.datajpa.section8_paging.TwoPhasePaging;
+import study.datajpa.section9_bulk.ImportResult;
+import study.datajpa.section9_bulk.MemberExportService;
+import study.datajpa.section9_bulk.MemberImportService;
 
 import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 
 /**
  * - section5 -
@@ -117,7 +144,15 @@ import javax.annotation.PostConstruct;
 public class MemberController {
 
 
+    //spring.data.web.pageable.max-page-size 와 같게 맞춘다
+    private static final int MAX_CURSOR_SIZE = 2000;
+
     private final MemberRepository memberRepository;
+    private final MemberPagingService memberPagingService;
+    private final MemberExportService memberExportService;
+    private final MemberImportService memberImportService;
+    private final SpecificationQueryExecutor specificationQueryExecutor;
+    private final SecondLevelCacheLoader secondLevelCacheLoader;
 
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id){
@@ -130,6 +165,11 @@ public class MemberController {
     public String findMember2(@PathVariable("id") Member member){
         return member.getUsername();
     }
+    //엔티티 대신 프로젝션으로 바인딩 - username 컬럼만 select, 결과 캐시 (ProjectionConverter)
+    @GetMapping("/members4/{id}")
+    public String findMember4(@PathVariable("id") @ProjectedFrom(Member.class) UsernameOnlyDto member){
+        return member.getUsername();
+    }
 
     //---------------------------------//
     //페이징과 정렬
@@ -137,9 +177,13 @@ public class MemberController {
     // URL 요청 : http://localhost:8001/members?page=1&size=3
     // - page : 현재페이지, size : 표시할 컨텐츠 개수
 
+    // count 전략 선택 - /members?page=0&size=3&count=CACHED
+    // -> 응답의 totalType 으로 totalElements 가 정확한 값인지(EXACT) 추정치인지(ESTIMATED) 알수 있다
     @GetMapping("/members")
-    public Page<Member> list(Pageable pageable){
-        return memberRepository.findAll(pageable);
+    public CountedPage<Member> list(Pageable pageable,
+                                    @RequestParam(value = "count", defaultValue = "EXACT") CountMode countMode){
+//        return memberRepository.findAll(pageable);
+        return memberPagingService.findAll(pageable, countMode);
     }
     //개별 페이징 default 설정
     @GetMapping("/members2")
@@ -148,14 +192,92 @@ public class MemberController {
     }
     //Page 안의 Member 엔티티 -> DTO 로 변환
     @GetMapping("/members3")
+    // -> ID 만 먼저 페이징하고 해당 ID 들만 team 페치 조인 - team 이름까지 N + 1 없이 내려준다
+    // -> 2차 캐시에 있는 회원, 팀은 캐시에서 - 없는 ID 만 페치 조인 (SecondLevelCacheLoader)
     public Page<MemberDto> list3(@PageableDefault(size = 5, sort = "username") Pageable pageable){
-        Page<Member> page = memberRepository.findAll(pageable);
+//        Page<Member> page = memberRepository.findAll(pageable);
+//        Page<Member> page = memberRepository.findAllWithTeam(pageable);
+        Page<Member> page = TwoPhasePaging.load(memberRepository.findMemberIds(pageable),
+                ids -> secondLevelCacheLoader.findAllById(Member.class, ids, "team"), Member::getId);
 //        Page<MemberDto> memberDto = page.map(member -> new MemberDto(member));
-        Page<MemberDto> memberDto = page.map(MemberDto::new);
+//        Page<MemberDto> memberDto = page.map(MemberDto::new);
+        Page<MemberDto> memberDto = page.map(member -> new MemberDto(member.getId(), member.getUsername(),
+                member.getTeam() == null ? null : member.getTeam().getName()));
 
         return memberDto;
     }
 
+    //---------------------------------//
+    //동적 검색 - /members/search?teamName=teamA&ageGoe=10&page=0&size=10&sort=username
+    // -> 값이 있는 조건만 QuerySpec 으로 조합, 같은 조건 조합(shape)은 캐시된 JPQL 로 값만 바인딩
+    @GetMapping("/members/search")
+    public Page<MemberDto> search(MemberSearchCondition condition,
+                                  @PageableDefault(size = 10, sort = "username") Pageable pageable){
+        return specificationQueryExecutor.findAll(Member.class, MemberQuerySpecs.search(condition), pageable)
+                .map(MemberDto::new);
+    }
+
+    //---------------------------------//
+    //keyset(seek) 페이징 - 페이지 번호 대신 커서를 주고 받는다
+    // URL 요청 : /members/cursor?size=10 -> 응답의 nextCursor 로 /members/cursor?cursor={nextCursor}&size=10
+    // -> offset 을 쓰지 않으므로 뒤 페이지로 가도 조회 속도가 일정하다
+    @GetMapping("/members/cursor")
+    public CursorResult<MemberDto> listByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+                                                @RequestParam(value = "size", defaultValue = "10") int size){
+        if (size < 1 || size > MAX_CURSOR_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size 는 1 ~ " + MAX_CURSOR_SIZE + " 사이여야 합니다.");
+        }
+
+        //다음 페이지 여부 확인을 위해 size + 1 개 조회 - offset 은 항상 0
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<Member> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = memberRepository.findKeysetFirst(limit);
+        } else {
+            MemberCursor after = decodeCursor(cursor);
+            rows = memberRepository.findKeysetAfter(after.getUsername(), after.getId(), limit);
+        }
+
+        return CursorResult.of(rows, size, MemberDto::new);
+    }
+
+    //---------------------------------//
+    //전체 회원 export - NDJSON 스트리밍
+    // -> StreamingResponseBody 는 별도 스레드에서 응답에 바로 쓴다 (트랜잭션은 MemberExportService 에서)
+    // -> 시간이 오래 걸리므로 spring.mvc.async.request-timeout 을 늘려 두었다
+    @GetMapping(value = "/members/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(){
+        StreamingResponseBody body = memberExportService::exportNdjson;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    //---------------------------------//
+    //회원 bulk import - CSV(username,age,teamName) 또는 NDJSON 을 요청 body 로 받는다
+    // -> body 를 한번에 읽지 않고 스트림으로 chunk 단위 저장 (MemberImportService)
+    @PostMapping(value = "/members/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ImportResult importMembers(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                      InputStream body) throws IOException {
+        try {
+            if (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+                return memberImportService.importNdjson(body);
+            }
+            return memberImportService.importCsv(body);
+        } catch (IllegalArgumentException e) {
+            //잘못된 줄 앞의 chunk 는 이미 저장되어 있다
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    private MemberCursor decodeCursor(String cursor) {
+        try {
+            return MemberCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
     //Controller 빈 생성후 실행
 //    @PostConstruct
 //    public void init(){
@@ -4,6 +4,7 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.section13_specification.SpecJoins;
 
 import javax.persistence.criteria.*;
 
@@ -19,7 +20,8 @@ public class MemberSpec {
                     return null;
                 }
 
-                Join<Member, Team> t = root.join("team", JoinType.INNER);//회원과 조인
+                //회원과 조인 - root.join 은 호출마다 새 조인을 만든다, 같은 team 조인이 있으면 재사용
+                Join<Member, Team> t = SpecJoins.join(root, "team", JoinType.INNER);
                 return criteriaBuilder.equal(t.get("name"), teamName); //where 문만들어 진다
             }
         };
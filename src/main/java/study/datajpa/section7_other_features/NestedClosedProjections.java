@@ -1,5 +1,14 @@
 package study.datajpa.section7_other_features;
 
+import study.datajpa.projection.GenerateMapper;
+
+/**
+ * 중첩 프로젝션
+ *
+ * 스프링 데이터 JPA (findProjectionClassTypeByUsername) : 루트(username)만 select 최적화, team 은 Team 엔티티 전체 조회
+ * 생성된 매퍼 (findMappedByUsername) : select m.username, t.name 한번 - 엔티티 없이 바로 매핑
+ * */
+@GenerateMapper
 public interface NestedClosedProjections {
 
     String getUsername();
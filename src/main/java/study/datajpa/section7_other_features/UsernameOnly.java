@@ -2,6 +2,7 @@ package study.datajpa.section7_other_features;
 
 
 import org.springframework.beans.factory.annotation.Value;
+import study.datajpa.projection.GenerateMapper;
 
 /**
  * projections
@@ -18,6 +19,7 @@ import org.springframework.beans.factory.annotation.Value;
  * 단! 이렇게 SpEL문법을 사용하면, DB에서 엔티티 필드를 다 조회해온 다음에 계산한다! 따라서 JPQL
  * SELECT 절 최적화가 안된다.
  * */
+@GenerateMapper // 프록시 대신 생성된 매퍼 사용 - MemberRepository.findMappedByUsername
 public interface UsernameOnly {
 
 //    @Value("#{target.username + ' ' + target.age }")
@@ -1,4 +1,7 @@
 package study.datajpa.section7_other_features;
+
+import study.datajpa.projection.GenerateMapper;
+
 /**
  *
  * 클래스 기반 Projection - 구체적인 클래스를 지정했기때문에 프록시 기술이 없어도 된다
@@ -7,6 +10,7 @@ package study.datajpa.section7_other_features;
  * 생성자의 파라미터 이름으로 매칭 - 파라미터 명이 달라지면 된다
  *
  * */
+@GenerateMapper // 프록시 대신 생성된 매퍼 사용 - MemberRepository.findMappedByUsername
 public class UsernameOnlyDto {
 
     private final String username;
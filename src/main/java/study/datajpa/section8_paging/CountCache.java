@@ -0,0 +1,71 @@
+package study.datajpa.section8_paging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.WriteVersionListener;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * count 쿼리 결과 캐시
+ *
+ * key : 쿼리 모양(shape) + 파라미터 - ex) "Member.countByAge[10]"
+ * -> TTL 이 지나거나, 대상 엔티티의 버전(WriteVersionListener)이 바뀌면 다시 count 쿼리를 날린다
+ * -> 페이지 번호, 정렬은 count 에 영향이 없으므로 key 에 넣지 않는다
+ * */
+@Slf4j
+@Component
+public class CountCache {
+
+    private final ConcurrentMap<String, Entry> cache = new ConcurrentHashMap<>();
+
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    public CountCache(@Value("${datajpa.paging.count-cache.ttl-millis:30000}") long ttlMillis,
+                      @Value("${datajpa.paging.count-cache.max-entries:10000}") int maxEntries) {
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+    }
+
+    public long get(Class<?> entityType, String shape, Object[] params, LongSupplier countQuery) {
+        String key = shape + Arrays.deepToString(params);
+        long version = WriteVersionListener.current(entityType);
+        long now = System.currentTimeMillis();
+
+        Entry entry = cache.get(key);
+        if (entry != null && entry.version == version && entry.expiresAt > now) {
+            return entry.count;
+        }
+
+        //버전은 count 전에 읽어둔다 - count 도중 변경되면 다음 조회때 다시 계산
+        long count = countQuery.getAsLong();
+        if (cache.size() >= maxEntries) {
+            //단순하게 전부 비운다 - 쿼리 모양이 많지 않으므로 거의 일어나지 않는다
+            log.debug("count cache full, clear. size={}", cache.size());
+            cache.clear();
+        }
+        cache.put(key, new Entry(count, version, now + ttlMillis));
+        return count;
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    private static final class Entry {
+        private final long count;
+        private final long version;
+        private final long expiresAt;
+
+        private Entry(long count, long version, long expiresAt) {
+            this.count = count;
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package study.datajpa.section8_paging;
+
+/**
+ * Page 의 totalCount 를 구하는 방법
+ * */
+public enum CountMode {
+
+    //매번 count 쿼리 - 기존 Page 와 같다
+    EXACT,
+    //count 결과를 쿼리 모양 + 파라미터 별로 캐시 (TTL, Member 변경시 무효화)
+    CACHED,
+    //DB 통계의 추정 row 수 사용 - 조건 없는 전체 조회일때만, 아니면 CACHED 로 동작
+    APPROXIMATE,
+    //count 쿼리를 다른 커넥션에서 content 쿼리와 동시에 실행 - 제한시간 안에 안끝나면 total 생략
+    PARALLEL
+}
@@ -0,0 +1,32 @@
+package study.datajpa.section8_paging;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * totalElements 가 정확한지(EXACT), 추정치인지(ESTIMATED) 같이 내려주는 Page
+ *
+ * -> JSON 응답에 "totalType" 필드가 추가된다
+ * */
+public class CountedPage<T> extends PageImpl<T> {
+
+    private final TotalType totalType;
+
+    public CountedPage(List<T> content, Pageable pageable, long total, TotalType totalType) {
+        super(content, pageable, total);
+        this.totalType = totalType;
+    }
+
+    public TotalType getTotalType() {
+        return totalType;
+    }
+
+    //map 으로 DTO 변환해도 totalType 이 유지되도록 override
+    @Override
+    public <U> CountedPage<U> map(Function<? super T, ? extends U> converter) {
+        return new CountedPage<>(getConvertedContent(converter), getPageable(), getTotalElements(), totalType);
+    }
+}
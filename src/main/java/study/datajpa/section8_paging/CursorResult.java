@@ -0,0 +1,47 @@
+package study.datajpa.section8_paging;
+
+import lombok.Getter;
+import study.datajpa.entity.Member;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * keyset 페이징 응답
+ *
+ * 페이지 번호 대신 다음 요청에 그대로 넘길 nextCursor 를 내려준다
+ * -> Slice 처럼 size + 1 개를 조회해서 다음 데이터가 있는지만 확인한다 (count 쿼리 없음)
+ * */
+@Getter
+public class CursorResult<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final boolean hasNext;
+
+    public CursorResult(List<T> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * @param rows size + 1 개로 조회한 결과
+     * @param size 실제 내려줄 개수
+     */
+    public static <T> CursorResult<T> of(List<Member> rows, int size, Function<Member, T> converter) {
+        boolean hasNext = rows.size() > size;
+        List<Member> page = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            nextCursor = MemberCursor.of(page.get(page.size() - 1)).encode();
+        }
+
+        List<T> content = page.stream()
+                .map(converter)
+                .collect(Collectors.toList());
+        return new CursorResult<>(content, nextCursor, hasNext);
+    }
+}
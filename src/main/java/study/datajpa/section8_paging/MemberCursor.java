@@ -0,0 +1,60 @@
+package study.datajpa.section8_paging;
+
+import lombok.Getter;
+import study.datajpa.entity.Member;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * keyset(seek) 페이징 커서
+ *
+ * 마지막으로 내려준 회원의 (username, id) 를 담는다
+ * -> 클라이언트에게는 의미를 알수 없는 문자열(base64)로 내려주고 그대로 다시 받는다
+ * -> 내부 구조가 바뀌어도 API 는 바뀌지 않는다
+ *
+ * 인코딩 형식 : "{id}:{username}" -> base64 url
+ * -> username 에 ':' 이 들어가도 되도록 id 를 앞에 둔다
+ * */
+@Getter
+public class MemberCursor {
+
+    private final String username;
+    private final Long id;
+
+    public MemberCursor(String username, Long id) {
+        this.username = username;
+        this.id = id;
+    }
+
+    public static MemberCursor of(Member member) {
+        return new MemberCursor(member.getUsername(), member.getId());
+    }
+
+    public String encode() {
+        String raw = id + ":" + username;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MemberCursor decode(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("잘못된 커서 입니다. cursor = " + cursor, e);
+        }
+
+        int idx = raw.indexOf(':');
+        if (idx <= 0) {
+            throw new IllegalArgumentException("잘못된 커서 입니다. cursor = " + cursor);
+        }
+
+        try {
+            Long id = Long.valueOf(raw.substring(0, idx));
+            return new MemberCursor(raw.substring(idx + 1), id);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 커서 입니다. cursor = " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package study.datajpa.section8_paging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.section1_4_repository.MemberRepository;
+import study.datajpa.section7_other_features.MemberProjection;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * count 전략을 고를수 있는 Member 페이징
+ *
+ * Page 를 반환하면 content 쿼리 + count 쿼리가 항상 같이 나간다
+ * -> 데이터가 많으면 count 쿼리가 content 쿼리보다 더 비싸다
+ *
+ * 1. content 는 List 로 받는다 (count 쿼리 없음)
+ * 2. total 은 CountMode 에 따라 구한다
+ *  - EXACT : 매번 count
+ *  - CACHED : CountCache (TTL + Member 변경시 무효화)
+ *  - APPROXIMATE : H2 테이블 통계(ROW_COUNT_ESTIMATE) - 조건 없는 전체 조회만 가능
+ *  - PARALLEL : count 를 countQueryExecutor 스레드(= 다른 커넥션)에서 content 와 동시에 실행
+ * 3. 마지막 페이지처럼 content 만으로 total 을 알수 있으면 count 를 생략한다 (PageableExecutionUtils 와 같은 방식)
+ *
+ * PARALLEL 주의
+ * -> count 는 별도 스레드의 별도 트랜잭션이다 - 현재 트랜잭션에서 flush 안된 변경은 count 에 보이지 않는다
+ * -> 제한시간이 지나면 total 은 생략(OMITTED)하고 content 만 내려준다
+ * -> countQueryExecutor 가 가득 차서 못 받아도 생략(OMITTED) - 현재 스레드에서 count 하지 않는다
+ * -> count 는 트랜잭션 timeout(제한시간 올림, 초 단위) 으로 쿼리 timeout 이 걸려서 포기한 뒤에도 오래 실행되지 않는다
+ * */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class MemberPagingService {
+
+    private final MemberRepository memberRepository;
+    private final CountCache countCache;
+    private final EntityManager em;
+    private final ThreadPoolTaskExecutor countQueryExecutor;
+    private final long parallelCountTimeoutMillis;
+    private final TransactionTemplate countTransaction;
+
+    public MemberPagingService(MemberRepository memberRepository,
+                               CountCache countCache,
+                               EntityManager em,
+                               @Qualifier("countQueryExecutor") ThreadPoolTaskExecutor countQueryExecutor,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${datajpa.paging.parallel-count.timeout-millis:500}") long parallelCountTimeoutMillis) {
+        this.memberRepository = memberRepository;
+        this.countCache = countCache;
+        this.em = em;
+        this.countQueryExecutor = countQueryExecutor;
+        this.parallelCountTimeoutMillis = parallelCountTimeoutMillis;
+        //기다리는 쪽이 포기한 count 가 커넥션을 계속 잡지 않도록 - 트랜잭션 timeout 은 초 단위라서 올림
+        this.countTransaction = new TransactionTemplate(transactionManager);
+        this.countTransaction.setReadOnly(true);
+        this.countTransaction.setTimeout((int) Math.max(1, (parallelCountTimeoutMillis + 999) / 1000));
+    }
+
+    public CountedPage<Member> findAll(Pageable pageable, CountMode countMode) {
+        if (countMode == CountMode.APPROXIMATE) {
+            List<Member> content = memberRepository.findListBy(pageable);
+            Long estimate = estimateRowCount("MEMBER");
+            if (estimate != null) {
+                return toPage(content, pageable, estimate, TotalType.ESTIMATED);
+            }
+            return page(() -> content, pageable, CountMode.CACHED, "Member.count", new Object[0], memberRepository::count);
+        }
+        return page(() -> memberRepository.findListBy(pageable), pageable, countMode,
+                "Member.count", new Object[0], memberRepository::count);
+    }
+
+    public CountedPage<Member> findByAge(int age, Pageable pageable, CountMode countMode) {
+        //조건이 있으면 테이블 통계로 추정할수 없다 -> 캐시된 정확한 값 사용
+        if (countMode == CountMode.APPROXIMATE) {
+            countMode = CountMode.CACHED;
+        }
+        return page(() -> memberRepository.findListByAge(age, pageable), pageable, countMode,
+                "Member.countByAge", new Object[]{age}, () -> memberRepository.countByAge(age));
+    }
+
+    //네이티브 쿼리 + projection 페이징 - count 는 findByNativeProjection 의 countQuery 와 같은 전체 count
+    public CountedPage<MemberProjection> findByNativeProjection(Pageable pageable, CountMode countMode) {
+        if (countMode == CountMode.APPROXIMATE) {
+            List<MemberProjection> content = memberRepository.findListByNativeProjection(pageable);
+            Long estimate = estimateRowCount("MEMBER");
+            if (estimate != null) {
+                return toPage(content, pageable, estimate, TotalType.ESTIMATED);
+            }
+            return page(() -> content, pageable, CountMode.CACHED, "Member.count", new Object[0], memberRepository::count);
+        }
+        return page(() -> memberRepository.findListByNativeProjection(pageable), pageable, countMode,
+                "Member.count", new Object[0], memberRepository::count);
+    }
+
+    private <T> CountedPage<T> page(Supplier<List<T>> contentQuery, Pageable pageable, CountMode countMode,
+                                    String shape, Object[] params, LongSupplier countQuery) {
+        if (countMode == CountMode.PARALLEL && pageable.isPaged()) {
+            return parallelPage(contentQuery, pageable, countQuery);
+        }
+
+        List<T> content = contentQuery.get();
+        //content 만으로 total 을 알수 있는 경우 - count 생략
+        Long total = totalFromContent(content, pageable);
+        if (total != null) {
+            return toPage(content, pageable, total, TotalType.EXACT);
+        }
+
+        long count = countMode == CountMode.CACHED
+                ? countCache.get(Member.class, shape, params, countQuery)
+                : countQuery.getAsLong();
+        return toPage(content, pageable, count, TotalType.EXACT);
+    }
+
+    private <T> CountedPage<T> parallelPage(Supplier<List<T>> contentQuery, Pageable pageable, LongSupplier countQuery) {
+        //count 먼저 다른 스레드로 보내고 content 는 현재 트랜잭션 커넥션에서 실행
+        //count 트랜잭션에 제한시간 -> 그 안에서 만든 쿼리에 javax.persistence.query.timeout 이 걸린다
+        CompletableFuture<Long> countFuture;
+        try {
+            countFuture = CompletableFuture.supplyAsync(
+                    () -> countTransaction.execute(status -> countQuery.getAsLong()), countQueryExecutor);
+        } catch (RejectedExecutionException e) {
+            //풀이 가득 찼을때 직접 count 하면 제일 바쁠때 제일 느려진다 - timeout 과 같이 생략
+            log.debug("count query executor is busy, total omitted");
+            countFuture = null;
+        }
+
+        List<T> content = contentQuery.get();
+        Long total = totalFromContent(content, pageable);
+        if (countFuture == null) {
+            return total != null
+                    ? toPage(content, pageable, total, TotalType.EXACT)
+                    : toPage(content, pageable, lowerBound(content, pageable), TotalType.OMITTED);
+        }
+
+        if (total != null) {
+            //이미 알고 있으므로 기다리지 않는다
+            countFuture.cancel(false);
+            return toPage(content, pageable, total, TotalType.EXACT);
+        }
+
+        try {
+            long count = countFuture.get(parallelCountTimeoutMillis, TimeUnit.MILLISECONDS);
+            return toPage(content, pageable, count, TotalType.EXACT);
+        } catch (TimeoutException e) {
+            countFuture.cancel(false);
+            log.debug("parallel count timed out after {}ms, total omitted", parallelCountTimeoutMillis);
+        } catch (ExecutionException e) {
+            log.warn("parallel count failed, total omitted", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        return toPage(content, pageable, lowerBound(content, pageable), TotalType.OMITTED);
+    }
+
+    //하한값 - 꽉 찬 페이지면 다음 페이지가 있을수 있도록 + 1
+    private long lowerBound(List<?> content, Pageable pageable) {
+        return pageable.getOffset() + content.size()
+                + (content.size() == pageable.getPageSize() ? 1 : 0);
+    }
+
+    private Long totalFromContent(List<?> content, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return (long) content.size();
+        }
+        if (!content.isEmpty() && content.size() < pageable.getPageSize()) {
+            return pageable.getOffset() + content.size();
+        }
+        return null;
+    }
+
+    private <T> CountedPage<T> toPage(List<T> content, Pageable pageable, long total, TotalType totalType) {
+        return new CountedPage<>(content, pageable, total, totalType);
+    }
+
+    //H2 가 관리하는 추정 row 수 - 정확하지 않지만 테이블을 읽지 않는다
+    private Long estimateRowCount(String tableName) {
+        List<?> result = em.createNativeQuery(
+                        "select row_count_estimate from information_schema.tables" +
+                                " where table_schema = current_schema and table_name = ?")
+                .setParameter(1, tableName)
+                .getResultList();
+        if (result.isEmpty() || result.get(0) == null) {
+            return null;
+        }
+        return ((Number) result.get(0)).longValue();
+    }
+}
@@ -0,0 +1,31 @@
+package study.datajpa.section8_paging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class PagingConfig {
+
+    /**
+     * CountMode.PARALLEL 의 count 쿼리 전용 스레드풀
+     *
+     * -> 요청 하나당 커넥션을 2개(content + count) 쓰게 되므로 커넥션풀(hikari 기본 10) 보다 작게 잡는다
+     * -> 큐가 가득 차면 AbortPolicy - MemberPagingService 가 잡아서 순차 count 로 처리한다
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor countQueryExecutor(
+            @Value("${datajpa.paging.parallel-count.pool-size:4}") int poolSize,
+            @Value("${datajpa.paging.parallel-count.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("count-query-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,13 @@
+package study.datajpa.section8_paging;
+
+/**
+ * 응답의 totalElements 가 정확한 값인지 알려준다
+ * */
+public enum TotalType {
+
+    EXACT,
+    ESTIMATED,
+    //PARALLEL count 가 제한시간 안에 끝나지 않았다
+    // -> totalElements 는 지금까지 본 개수(다음 페이지가 있을수 있으면 + 1)인 하한값
+    OMITTED
+}
@@ -0,0 +1,51 @@
+package study.datajpa.section8_paging;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 2단계(ID 먼저) 페이징
+ *
+ * 1. ID 만 페이징해서 가져온다 - 정렬, limit/offset, count 는 여기서 처리
+ * 2. 가져온 ID 들만 in 절로 페치 조인 / 엔티티 그래프 조회
+ *
+ * -> in 절 조회는 순서를 보장하지 않으므로 1단계의 ID 순서대로 다시 맞춰준다
+ * -> 페이지 크기와 상관없이 내용 조회는 쿼리 2번 (ID 페이징 + in 절)
+ * */
+public final class TwoPhasePaging {
+
+    private TwoPhasePaging() {
+    }
+
+    public static <T, ID> Page<T> load(Page<ID> idPage,
+                                       Function<List<ID>, List<T>> loader,
+                                       Function<T, ID> idGetter) {
+        List<ID> ids = idPage.getContent();
+        //in () 빈 괄호는 DB 에 따라 문법 오류 - 쿼리 자체를 날리지 않는다
+        if (ids.isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), idPage.getPageable(), idPage.getTotalElements());
+        }
+
+        Map<ID, T> byId = new HashMap<>();
+        for (T entity : loader.apply(ids)) {
+            byId.put(idGetter.apply(entity), entity);
+        }
+
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (ID id : ids) {
+            T entity = byId.get(id);
+            //두 쿼리 사이에 삭제된 경우 빠진다
+            if (entity != null) {
+                ordered.add(entity);
+            }
+        }
+        return new PageImpl<>(ordered, idPage.getPageable(), idPage.getTotalElements());
+    }
+}
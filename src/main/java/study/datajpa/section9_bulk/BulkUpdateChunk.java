@@ -0,0 +1,38 @@
+package study.datajpa.section9_bulk;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 완료된 벌크 update chunk - update 와 같은 트랜잭션에서 저장한다
+ * -> chunk 의 update 가 커밋되었으면 이 row 도 있다, 다시 실행할때 건너뛴다
+ * */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_bulk_update_chunk", columnNames = {"job_id", "chunk_start"}))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class BulkUpdateChunk {
+
+    @Id @GeneratedValue
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private String jobId;
+    @Column(name = "chunk_start", nullable = false)
+    private long chunkStart;
+    private int chunkSize;
+    private int rowCount;
+    private LocalDateTime completedAt;
+
+    public BulkUpdateChunk(String jobId, long chunkStart, int chunkSize, int rowCount) {
+        this.jobId = jobId;
+        this.chunkStart = chunkStart;
+        this.chunkSize = chunkSize;
+        this.rowCount = rowCount;
+        this.completedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.section9_bulk;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class BulkUpdateConfig {
+
+    /**
+     * 벌크 update chunk 를 병렬로 실행할 스레드풀 - BulkUpdateExecutor
+     *
+     * -> 스레드마다 트랜잭션(커넥션)을 하나씩 잡으므로 커넥션풀(hikari 기본 10) 보다 작게
+     * -> 작업 하나가 worker 를 parallelism 개만 올리므로 큐는 여러 작업이 동시에 들어올때만 사용된다
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor bulkUpdateTaskExecutor(
+            @Value("${datajpa.bulk-update.max-parallelism:4}") int maxParallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxParallelism);
+        executor.setMaxPoolSize(maxParallelism);
+        executor.setQueueCapacity(maxParallelism * 4);
+        executor.setThreadNamePrefix("bulk-update-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
@@ -0,0 +1,237 @@
+package study.datajpa.section9_bulk;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.WriteVersionListener;
+import study.datajpa.section16_changelog.ChangeAction;
+import study.datajpa.section16_changelog.ChangeLogEvent;
+import study.datajpa.section16_changelog.ChangeLogPipeline;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 벌크 update 를 id 범위(chunk) 로 나눠서 실행
+ *
+ * update Member m set m.age = m.age + 1 where m.age >= :age 한번이면
+ * -> 대상 row 전체에 락을 잡은 채로 끝날때까지 커밋하지 않는다 - 그동안 다른 쓰기가 막힌다
+ * 여기서는
+ * -> id 를 chunkSize 단위 구간으로 나눠서 (chunk 시작 = id / chunkSize * chunkSize, 실행할때마다 같은 구간)
+ * -> chunk 마다 새 트랜잭션 (REQUIRES_NEW) 으로 update + 완료 기록(BulkUpdateChunk) 을 같이 커밋
+ * -> parallelism > 1 이면 bulkUpdateTaskExecutor 에서 worker 여러개가 chunk 를 나눠 가져간다
+ *
+ * 중단/실패 : 이미 커밋된 chunk 는 기록이 남아 있다 -> 같은 jobId 로 다시 실행하면 나머지 chunk 만 실행
+ * > 주의: chunk 단위 커밋이라 작업 중간에는 일부 row 만 바뀐 상태가 보인다
+ * */
+@Slf4j
+@Component
+public class BulkUpdateExecutor {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final TransactionTemplate chunkTransaction;
+    private final TransactionTemplate readTransaction;
+    private final ThreadPoolTaskExecutor taskExecutor;
+    private final int maxParallelism;
+    private final ChangeLogPipeline changeLogPipeline;
+
+    public BulkUpdateExecutor(PlatformTransactionManager transactionManager,
+                              @Qualifier("bulkUpdateTaskExecutor") ThreadPoolTaskExecutor taskExecutor,
+                              @Value("${datajpa.bulk-update.max-parallelism:4}") int maxParallelism,
+                              ChangeLogPipeline changeLogPipeline) {
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.maxParallelism = maxParallelism;
+        this.changeLogPipeline = changeLogPipeline;
+    }
+
+    public BulkUpdateResult execute(BulkUpdateJob job) {
+        long startNanos = System.nanoTime();
+        List<Long> pending = new ArrayList<>();
+        int skipped = readTransaction.execute(status -> plan(job, pending));
+        Progress progress = new Progress(job, pending.size());
+
+        int workers = Math.min(Math.min(job.getParallelism(), maxParallelism), Math.max(pending.size(), 1));
+        if (workers <= 1) {
+            new Worker(job, new ConcurrentLinkedQueue<>(pending), progress).run();
+        } else {
+            runParallel(job, pending, progress, workers);
+        }
+
+        if (progress.failure.get() != null) {
+            throw new IllegalStateException("벌크 update 실패 - 같은 jobId(" + job.getJobId() + ")로 다시 실행하면 " +
+                    "완료된 " + progress.completedChunks.get() + " 개 chunk 다음부터 이어서 실행합니다.", progress.failure.get());
+        }
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        BulkUpdateResult result = new BulkUpdateResult(job.getJobId(), progress.rows.get(), pending.size(), skipped, elapsedMillis);
+        log.info("bulk update finished. job={}, rows={}, chunks={}, skipped={}, {}ms, {} rows/s", result.getJobId(),
+                result.getRows(), result.getChunks(), result.getSkippedChunks(), result.getElapsedMillis(), result.getRowsPerSecond());
+        return result;
+    }
+
+    // 실행할 chunk 시작 id 목록 -> pending, 반환값은 이미 완료된 chunk 수
+    private int plan(BulkUpdateJob job, List<Long> pending) {
+        Object[] range = em.createQuery("select min(e.id), max(e.id) from " + em.getMetamodel().entity(job.getEntityType()).getName() + " e", Object[].class)
+                .getSingleResult();
+        List<BulkUpdateChunk> done = em.createQuery(
+                        "select c from BulkUpdateChunk c where c.jobId = :jobId", BulkUpdateChunk.class)
+                .setParameter("jobId", job.getJobId())
+                .getResultList();
+
+        Set<Long> completed = new HashSet<>();
+        for (BulkUpdateChunk chunk : done) {
+            if (chunk.getChunkSize() != job.getChunkSize()) {
+                throw new IllegalArgumentException("이전 실행과 chunkSize 가 다릅니다. job=" + job.getJobId() +
+                        ", 이전=" + chunk.getChunkSize() + ", 지금=" + job.getChunkSize());
+            }
+            completed.add(chunk.getChunkStart());
+        }
+        if (range[0] == null) {
+            return completed.size();
+        }
+
+        long chunkSize = job.getChunkSize();
+        long first = Math.floorDiv(((Number) range[0]).longValue(), chunkSize) * chunkSize;
+        long max = ((Number) range[1]).longValue();
+        for (long chunkStart = first; chunkStart <= max; chunkStart += chunkSize) {
+            if (!completed.contains(chunkStart)) {
+                pending.add(chunkStart);
+            }
+        }
+        return completed.size();
+    }
+
+    private void runParallel(BulkUpdateJob job, List<Long> pending, Progress progress, int workers) {
+        Queue<Long> queue = new ConcurrentLinkedQueue<>(pending);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            futures.add(CompletableFuture.runAsync(new Worker(job, queue, progress), taskExecutor));
+        }
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+        try {
+            all.get();
+        } catch (InterruptedException e) {
+            //호출 스레드 중단 - worker 는 지금 chunk 까지만 하고 멈춘다
+            progress.stop(e);
+            Thread.currentThread().interrupt();
+            all.exceptionally(ex -> null).join();
+        } catch (ExecutionException e) {
+            progress.stop(e.getCause());
+        }
+    }
+
+    private int runChunk(BulkUpdateJob job, long chunkStart) {
+        Integer rows = chunkTransaction.execute(status -> {
+            Query update = em.createQuery(job.getUpdateJpql());
+            for (Map.Entry<String, Object> parameter : job.getParameters().entrySet()) {
+                update.setParameter(parameter.getKey(), parameter.getValue());
+            }
+            int updated = update.setParameter("fromId", chunkStart)
+                    .setParameter("toId", chunkStart + job.getChunkSize() - 1)
+                    .executeUpdate();
+            em.persist(new BulkUpdateChunk(job.getJobId(), chunkStart, job.getChunkSize(), updated));
+            //벌크 update 는 엔티티 리스너를 거치지 않는다 - chunk 단위로 버전 증가(캐시 무효화), 변경 이력
+            //-> chunk 마다 커밋되므로 작업이 끝날때까지 기다리면 그동안 캐시가 바뀌기 전 결과를 준다
+            if (updated > 0) {
+                WriteVersionListener.bumpTransactional(job.getEntityType());
+                changeLogPipeline.record(new ChangeLogEvent(em.getMetamodel().entity(job.getEntityType()).getName(),
+                        null, ChangeAction.BULK_UPDATE, "job=" + job.getJobId() + ", ids=" + chunkStart + ".."
+                        + (chunkStart + job.getChunkSize() - 1) + ", rows=" + updated + ", jpql=" + job.getUpdateJpql()));
+            }
+            return updated;
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    /**
+     * 큐에서 chunk 를 하나씩 꺼내 실행 - 실패하거나 중단되면 멈춘다
+     */
+    private class Worker implements Runnable {
+
+        private final BulkUpdateJob job;
+        private final Queue<Long> queue;
+        private final Progress progress;
+
+        Worker(BulkUpdateJob job, Queue<Long> queue, Progress progress) {
+            this.job = job;
+            this.queue = queue;
+            this.progress = progress;
+        }
+
+        @Override
+        public void run() {
+            Long chunkStart;
+            while (!progress.stopped.get() && (chunkStart = queue.poll()) != null) {
+                if (Thread.currentThread().isInterrupted()) {
+                    progress.stop(new InterruptedException("bulk update interrupted"));
+                    return;
+                }
+                try {
+                    progress.onChunk(runChunk(job, chunkStart));
+                } catch (RuntimeException e) {
+                    progress.stop(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 진행률 - 10% 마다 로그
+     */
+    private static class Progress {
+
+        private final BulkUpdateJob job;
+        private final int totalChunks;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicInteger completedChunks = new AtomicInteger();
+        private final AtomicBoolean stopped = new AtomicBoolean();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Progress(BulkUpdateJob job, int totalChunks) {
+            this.job = job;
+            this.totalChunks = totalChunks;
+        }
+
+        void onChunk(int updated) {
+            long totalRows = rows.addAndGet(updated);
+            int done = completedChunks.incrementAndGet();
+            int step = Math.max(totalChunks / 10, 1);
+            if (done % step == 0 || done == totalChunks) {
+                long elapsedMillis = Math.max((System.nanoTime() - startNanos) / 1_000_000, 1);
+                log.info("bulk update progress. job={}, chunks={}/{}, rows={}, {} rows/s",
+                        job.getJobId(), done, totalChunks, totalRows, totalRows * 1000 / elapsedMillis);
+            }
+        }
+
+        void stop(Throwable cause) {
+            failure.compareAndSet(null, cause);
+            stopped.set(true);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package study.datajpa.section9_bulk;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * 범위(id) 단위로 나눠서 실행할 벌크 update
+ *
+ * updateJpql 은 :fromId, :toId 로 id 범위 조건을 가져야 한다
+ * -> update Member m set m.age = m.age + 1 where m.age >= :age and m.id between :fromId and :toId
+ *
+ * jobId 가 같으면 같은 작업 - 중단된 뒤 다시 실행하면 완료된 chunk 는 건너뛴다
+ * -> 다른 작업(같은 update 를 나중에 다시 실행하는 것 포함)은 다른 jobId 를 써야 한다
+ * */
+@Getter
+public class BulkUpdateJob {
+
+    private final String jobId;
+    private final Class<?> entityType;
+    private final String updateJpql;
+    private final Map<String, Object> parameters;
+    private final int chunkSize;
+    private final int parallelism;
+
+    public BulkUpdateJob(String jobId, Class<?> entityType, String updateJpql, Map<String, Object> parameters,
+                         int chunkSize, int parallelism) {
+        if (!updateJpql.contains(":fromId") || !updateJpql.contains(":toId")) {
+            throw new IllegalArgumentException("updateJpql 에 :fromId, :toId 범위 조건이 필요합니다: " + updateJpql);
+        }
+        if (chunkSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("chunkSize, parallelism 은 1 이상이어야 합니다.");
+        }
+        this.jobId = jobId;
+        this.entityType = entityType;
+        this.updateJpql = updateJpql;
+        this.parameters = Map.copyOf(parameters);
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+}
@@ -0,0 +1,24 @@
+package study.datajpa.section9_bulk;
+
+import lombok.Getter;
+
+@Getter
+public class BulkUpdateResult {
+
+    private final String jobId;
+    private final long rows;
+    private final int chunks;
+    // 이전 실행에서 이미 완료되어 건너뛴 chunk
+    private final int skippedChunks;
+    private final long elapsedMillis;
+    private final long rowsPerSecond;
+
+    public BulkUpdateResult(String jobId, long rows, int chunks, int skippedChunks, long elapsedMillis) {
+        this.jobId = jobId;
+        this.rows = rows;
+        this.chunks = chunks;
+        this.skippedChunks = skippedChunks;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = elapsedMillis == 0 ? rows * 1000 : rows * 1000 / elapsedMillis;
+    }
+}
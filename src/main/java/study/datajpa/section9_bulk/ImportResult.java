@@ -0,0 +1,19 @@
+package study.datajpa.section9_bulk;
+
+import lombok.Getter;
+
+@Getter
+public class ImportResult {
+
+    private final long rows;
+    private final int teams;
+    private final long elapsedMillis;
+    private final long rowsPerSecond;
+
+    public ImportResult(long rows, int teams, long elapsedMillis) {
+        this.rows = rows;
+        this.teams = teams;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = elapsedMillis == 0 ? rows * 1000 : rows * 1000 / elapsedMillis;
+    }
+}
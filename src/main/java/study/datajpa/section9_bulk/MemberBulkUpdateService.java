@@ -0,0 +1,29 @@
+package study.datajpa.section9_bulk;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import study.datajpa.entity.Member;
+
+import java.util.Map;
+
+/**
+ * MemberRepository.bulkAgePlus 를 chunk 단위로 나눠서 실행
+ *
+ * bulkAgePlus(age) 는 update 한번 - 트랜잭션 하나로 끝나야 하는 작은 데이터에 사용
+ * 이쪽은 대상이 많아서 락을 오래 잡으면 안될때 사용 (BulkUpdateExecutor)
+ * */
+@Service
+@RequiredArgsConstructor
+public class MemberBulkUpdateService {
+
+    private static final String AGE_PLUS_JPQL =
+            "update Member m set m.age = m.age + 1 where m.age >= :age and m.id between :fromId and :toId";
+
+    private final BulkUpdateExecutor bulkUpdateExecutor;
+
+    public BulkUpdateResult bulkAgePlus(String jobId, int age, int chunkSize, int parallelism) {
+        BulkUpdateJob job = new BulkUpdateJob(jobId, Member.class, AGE_PLUS_JPQL, Map.of("age", age),
+                chunkSize, parallelism);
+        return bulkUpdateExecutor.execute(job);
+    }
+}
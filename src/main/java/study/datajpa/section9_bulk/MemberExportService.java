@@ -0,0 +1,47 @@
+package study.datajpa.section9_bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.section1_4_repository.MemberRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 회원 전체 export - NDJSON (한줄에 JSON 하나)
+ *
+ * findAll() 은 모든 Member + Team 을 영속성 컨텍스트에 올린다 -> 회원 수 만큼 메모리 사용
+ * -> DTO 스트림을 한 row 씩 바로 응답으로 써서 회원 수와 상관없이 메모리 사용량이 일정하다
+ * */
+@Service
+@RequiredArgsConstructor
+public class MemberExportService {
+
+    private static final int NEW_LINE = '\n';
+
+    private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+
+    //Stream 조회는 트랜잭션이 있어야 한다 - 읽기 전용(flush, 스냅샷 생략)
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(MemberDto.class);
+        long count = 0;
+        try (Stream<MemberDto> members = memberRepository.streamAllMemberDto()) {
+            Iterator<MemberDto> iterator = members.iterator();
+            while (iterator.hasNext()) {
+                out.write(writer.writeValueAsBytes(iterator.next()));
+                out.write(NEW_LINE);
+                count++;
+            }
+        }
+        out.flush();
+        return count;
+    }
+}
@@ -0,0 +1,22 @@
+package study.datajpa.section9_bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 회원 bulk import 한 줄
+ *
+ * CSV    : username,age,teamName
+ * NDJSON : {"username":"member1","age":10,"teamName":"teamA"}
+ * -> teamName 이 없으면 팀 없이 저장
+ * */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberImportRow {
+
+    private String username;
+    private int age;
+    private String teamName;
+}
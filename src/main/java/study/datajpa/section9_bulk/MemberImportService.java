@@ -0,0 +1,143 @@
+package study.datajpa.section9_bulk;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import study.datajpa.section1_4_repository.MemberRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 회원 bulk import - CSV / NDJSON
+ *
+ * 입력을 한줄씩 읽어서 chunkSize 단위로 저장한다 -> 입력 크기와 상관없이 메모리는 chunk 만큼만 사용
+ * 1. chunk 안에서 처음 보는 팀 이름만 모아서 한번에 조회 (없으면 생성) - 한번 찾은 팀은 계속 재사용
+ * 2. chunk 를 JDBC batch insert
+ *
+ * 트랜잭션은 chunk 단위 (서비스에는 @Transactional 이 없다 - 리포지토리 메서드 마다 트랜잭션)
+ * -> 중간에 실패하면 앞의 chunk 는 이미 커밋되어 있다
+ * */
+@Slf4j
+@Service
+public class MemberImportService {
+
+    private static final String CSV_HEADER = "username,age,teamname";
+
+    private final MemberRepository memberRepository;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public MemberImportService(MemberRepository memberRepository,
+                               ObjectMapper objectMapper,
+                               @Value("${datajpa.import.chunk-size:1000}") int chunkSize) {
+        this.memberRepository = memberRepository;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    // username,age,teamName - 첫줄이 헤더면 건너뛴다, 따옴표(quoting)는 지원하지 않는다
+    public ImportResult importCsv(InputStream in) throws IOException {
+        ChunkWriter writer = new ChunkWriter();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (lineNumber == 1 && line.replace(" ", "").equalsIgnoreCase(CSV_HEADER))) {
+                continue;
+            }
+            writer.add(parseCsv(line, lineNumber));
+        }
+        return writer.finish();
+    }
+
+    public ImportResult importNdjson(InputStream in) throws IOException {
+        ChunkWriter writer = new ChunkWriter();
+        try (MappingIterator<MemberImportRow> rows = objectMapper.readerFor(MemberImportRow.class).readValues(in)) {
+            while (rows.hasNextValue()) {
+                writer.add(validate(rows.nextValue(), rows.getCurrentLocation().getLineNr()));
+            }
+        }
+        return writer.finish();
+    }
+
+    private MemberImportRow parseCsv(String line, long lineNumber) {
+        String[] columns = line.split(",", 3);
+        if (columns.length < 2) {
+            throw new IllegalArgumentException("line " + lineNumber + ": username,age[,teamName] 형식이 아닙니다.");
+        }
+        try {
+            String teamName = columns.length == 3 ? columns[2].trim() : null;
+            MemberImportRow row = new MemberImportRow(columns[0].trim(), Integer.parseInt(columns[1].trim()),
+                    teamName == null || teamName.isEmpty() ? null : teamName);
+            return validate(row, lineNumber);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("line " + lineNumber + ": age 가 숫자가 아닙니다.", e);
+        }
+    }
+
+    private MemberImportRow validate(MemberImportRow row, long lineNumber) {
+        if (row.getUsername() == null || row.getUsername().isEmpty()) {
+            throw new IllegalArgumentException("line " + lineNumber + ": username 이 없습니다.");
+        }
+        return row;
+    }
+
+    /**
+     * chunk 단위로 모아서 저장
+     */
+    private class ChunkWriter {
+
+        private final long startNanos = System.nanoTime();
+        private final List<MemberImportRow> buffer = new ArrayList<>(chunkSize);
+        private final Map<String, Long> teamIds = new HashMap<>();
+        private long rows;
+
+        void add(MemberImportRow row) {
+            buffer.add(row);
+            if (buffer.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        ImportResult finish() {
+            flush();
+            long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            ImportResult result = new ImportResult(rows, teamIds.size(), elapsedMillis);
+            log.info("member import finished. rows={}, teams={}, {}ms, {} rows/s",
+                    result.getRows(), result.getTeams(), result.getElapsedMillis(), result.getRowsPerSecond());
+            return result;
+        }
+
+        private void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+
+            Set<String> unseen = new LinkedHashSet<>();
+            for (MemberImportRow row : buffer) {
+                if (row.getTeamName() != null && !teamIds.containsKey(row.getTeamName())) {
+                    unseen.add(row.getTeamName());
+                }
+            }
+            if (!unseen.isEmpty()) {
+                teamIds.putAll(memberRepository.resolveTeamIds(unseen));
+            }
+
+            rows += memberRepository.insertMembers(buffer, teamIds);
+            buffer.clear();
+        }
+    }
+}
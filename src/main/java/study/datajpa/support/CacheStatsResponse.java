@@ -0,0 +1,25 @@
+package study.datajpa.support;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caffeine 캐시 통계 -> /monitoring/* 응답 (size, hits, misses, hitRate, evictions)
+ * */
+public final class CacheStatsResponse {
+
+    private CacheStatsResponse() {
+    }
+
+    public static Map<String, Object> of(long size, CacheStats stats) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", size);
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
@@ -0,0 +1,95 @@
+package study.datajpa.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 트랜잭션마다 하나씩 있는 값 - 트랜잭션 리소스 + 동기화
+ *
+ * private static final TransactionScoped<Set<Class<?>>> WRITTEN = new TransactionScoped<>(HashSet::new, (types, status) -> ...);
+ * WRITTEN.get().add(Member.class);
+ *
+ * 1. get() : 처음 부를때 만들어서 트랜잭션 리소스로 보관 (이후 O(1) 조회), 트랜잭션 동기화가 없으면 null
+ * 2. 트랜잭션이 끝나면(커밋, 롤백) 제거하고 onCompletion(value, status) 호출
+ * 3. REQUIRES_NEW, NOT_SUPPORTED 로 바깥 트랜잭션이 중단(suspend)되면 값도 같이 내려놓는다
+ *    -> 트랜잭션 리소스(bindResource)는 스프링이 대신 suspend 해주지 않는다 (DataSource, EntityManager 만)
+ *    -> 안쪽 트랜잭션은 자기 값을 새로 만들고, 바깥이 재개(resume)되면 바깥 값을 다시 건다
+ * */
+public final class TransactionScoped<T> {
+
+    private final Supplier<T> factory;
+    private final ObjIntConsumer<T> onCompletion;
+
+    public TransactionScoped(Supplier<T> factory) {
+        this(factory, null);
+    }
+
+    /**
+     * @param onCompletion 트랜잭션이 끝난 뒤 - status 는 TransactionSynchronization.STATUS_COMMITTED 등
+     */
+    public TransactionScoped(Supplier<T> factory, ObjIntConsumer<T> onCompletion) {
+        this.factory = factory;
+        this.onCompletion = onCompletion;
+    }
+
+    public T get() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Holder holder = holder();
+        if (holder == null) {
+            holder = new Holder();
+            TransactionSynchronizationManager.bindResource(this, holder);
+            TransactionSynchronizationManager.registerSynchronization(holder);
+        }
+        if (holder.value == null) {
+            holder.value = factory.get();
+        }
+        return holder.value;
+    }
+
+    // 만들지 않고 조회만 - 없으면 null
+    public T find() {
+        Holder holder = holder();
+        return holder == null ? null : holder.value;
+    }
+
+    // 지금 트랜잭션의 값을 버린다 - 다음 get() 에서 새로 만든다
+    public void reset() {
+        Holder holder = holder();
+        if (holder != null) {
+            holder.value = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Holder holder() {
+        return (Holder) TransactionSynchronizationManager.getResource(this);
+    }
+
+    private final class Holder implements TransactionSynchronization {
+
+        private T value;
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TransactionScoped.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(TransactionScoped.this, this);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TransactionScoped.this);
+            if (onCompletion != null && value != null) {
+                onCompletion.accept(value, status);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package study.datajpa.entity;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.section1_4_repository.MemberJpaRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * MemberJpaRepository.save 처리량 - 시퀀스 allocationSize 별 비교
+ *
+ * ./gradlew benchmarkTest --tests "*SaveThroughputBenchmark"
+ * -> AllocationSize1SaveThroughputBenchmark : 기존처럼 persist 마다 시퀀스 호출
+ * -> AllocationSize50SaveThroughputBenchmark : pooled-lo, 50 번에 1번 시퀀스 호출
+ * */
+@Tag("benchmark")
+abstract class AbstractSaveThroughputBenchmark {
+
+    private static final int WARMUP = 5_000;
+    private static final int MEMBER_COUNT = 50_000;
+    private static final int PER_TRANSACTION = 1_000;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Value("${spring.jpa.properties.datajpa.id.allocation-size}")
+    int allocationSize;
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status ->
+                em.createQuery("delete from Member m where m.username like 'bench-save-%'").executeUpdate());
+    }
+
+    @Test
+    public void saveThroughput() {
+        save(WARMUP);
+
+        long start = System.nanoTime();
+        save(MEMBER_COUNT);
+        long elapsedNanos = System.nanoTime() - start;
+
+        System.out.printf("[MemberJpaRepository.save] allocationSize = %d, members = %d, %.0f saves/s%n",
+                allocationSize, MEMBER_COUNT, MEMBER_COUNT / (elapsedNanos / 1_000_000_000.0));
+    }
+
+    private void save(int count) {
+        for (int start = 0; start < count; start += PER_TRANSACTION) {
+            int from = start;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = from; i < from + PER_TRANSACTION; i++) {
+                    memberJpaRepository.save(new Member("bench-save-" + i, i % 100));
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package study.datajpa.entity;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "spring.jpa.properties.datajpa.id.allocation-size=1")
+class AllocationSize1SaveThroughputBenchmark extends AbstractSaveThroughputBenchmark {
+}
@@ -0,0 +1,7 @@
+package study.datajpa.entity;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "spring.jpa.properties.datajpa.id.allocation-size=50")
+class AllocationSize50SaveThroughputBenchmark extends AbstractSaveThroughputBenchmark {
+}
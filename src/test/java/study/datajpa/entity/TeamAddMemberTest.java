@@ -0,0 +1,106 @@
+package study.datajpa.entity;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceUnit;
+
+/**
+ * 팀원이 많은 팀에 회원을 추가해도 Team.members 를 로딩하지 않는지 확인
+ * */
+@SpringBootTest
+@Transactional
+class TeamAddMemberTest {
+
+    private static final int TEAM_SIZE = 2_000;
+
+    @PersistenceContext
+    EntityManager em;
+    @PersistenceUnit
+    EntityManagerFactory emf;
+
+    Statistics statistics;
+    Long teamId;
+
+    @BeforeEach
+    void setUp() {
+        Team team = new Team("bigTeam");
+        em.persist(team);
+        for (int i = 0; i < TEAM_SIZE; i++) {
+            em.persist(new Member("bigTeam-member" + i, 10, team));
+            if (i % 500 == 0) {
+                em.flush();
+            }
+        }
+        em.flush();
+        em.clear();
+        teamId = team.getId();
+
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void addMemberToManagedTeam() {
+        Team team = em.find(Team.class, teamId);
+
+        for (int i = 0; i < 10; i++) {
+            em.persist(new Member("newcomer" + i, 20, team));
+        }
+        em.flush();
+
+        //team 조회 1 + 시퀀스 1 (pooled-lo) + insert batch 1 - 팀원 2000명 로딩은 없다
+        Assertions.assertThat(statistics.getCollectionLoadCount()).isZero();
+        Assertions.assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+
+        //size() 는 EXTRA 라 count 쿼리
+        Assertions.assertThat(team.getMembers().size()).isEqualTo(TEAM_SIZE + 10);
+    }
+
+    @Test
+    public void addedMembersVisibleBeforeFlush() {
+        Team team = em.find(Team.class, teamId);
+
+        for (int i = 0; i < 10; i++) {
+            em.persist(new Member("newcomer" + i, 20, team));
+        }
+        Assertions.assertThat(statistics.getCollectionLoadCount()).isZero();
+
+        //flush 없이 로딩 - 컬렉션 로딩은 flush 하지 않으므로 queue 에 쌓인 추가분이 합쳐져야 보인다
+        Hibernate.initialize(team.getMembers());
+
+        Assertions.assertThat(team.getMembers()).hasSize(TEAM_SIZE + 10);
+        Assertions.assertThat(team.getMembers()).extracting(Member::getUsername).contains("newcomer0", "newcomer9");
+    }
+
+    @Test
+    public void addMemberToDetachedTeam() {
+        Team team = em.find(Team.class, teamId);
+        em.detach(team);
+
+        //준영속 팀이어도 LazyInitializationException 없이 연관관계를 설정할수 있다
+        Member member = new Member("detached-newcomer", 20, team);
+        em.persist(member);
+        em.flush();
+
+        Assertions.assertThat(statistics.getCollectionLoadCount()).isZero();
+        Assertions.assertThat(member.getTeam()).isSameAs(team);
+    }
+}
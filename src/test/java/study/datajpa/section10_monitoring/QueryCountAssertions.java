@@ -0,0 +1,50 @@
+package study.datajpa.section10_monitoring;
+
+import org.assertj.core.api.Assertions;
+
+/**
+ * 테스트에서 SQL 수(budget) 검증
+ *
+ * resetQueryCount();
+ * memberRepository.findAllWithTeam(pageable);
+ * assertSelectCount(3);
+ * */
+public abstract class QueryCountAssertions {
+
+    public static void resetQueryCount() {
+        QueryCounter.start();
+    }
+
+    public static QueryCount queryCount() {
+        QueryCount count = QueryCounter.current();
+        if (count == null) {
+            throw new IllegalStateException("QueryCounter 가 시작되지 않았습니다. @ExtendWith(QueryCountExtension.class) 를 확인하세요.");
+        }
+        return count;
+    }
+
+    public static void assertSelectCount(int expected) {
+        QueryCount count = queryCount();
+        Assertions.assertThat(count.getSelect()).as("select count - %s", count).isEqualTo(expected);
+    }
+
+    public static void assertInsertCount(int expected) {
+        QueryCount count = queryCount();
+        Assertions.assertThat(count.getInsert()).as("insert count - %s", count).isEqualTo(expected);
+    }
+
+    public static void assertUpdateCount(int expected) {
+        QueryCount count = queryCount();
+        Assertions.assertThat(count.getUpdate()).as("update count - %s", count).isEqualTo(expected);
+    }
+
+    public static void assertDeleteCount(int expected) {
+        QueryCount count = queryCount();
+        Assertions.assertThat(count.getDelete()).as("delete count - %s", count).isEqualTo(expected);
+    }
+
+    public static void assertTotalCountAtMost(int budget) {
+        QueryCount count = queryCount();
+        Assertions.assertThat(count.getTotal()).as("total count - %s", count).isLessThanOrEqualTo(budget);
+    }
+}
@@ -0,0 +1,24 @@
+package study.datajpa.section10_monitoring;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * 테스트 메서드마다 SQL 수를 새로 센다
+ *
+ * @ExtendWith(QueryCountExtension.class) 를 붙이고 QueryCountAssertions 로 검증
+ * -> 준비(given) 단계 SQL 을 빼려면 검증할 코드 직전에 QueryCountAssertions.resetQueryCount()
+ * */
+public class QueryCountExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        QueryCounter.start();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        QueryCounter.stop();
+    }
+}
@@ -0,0 +1,69 @@
+package study.datajpa.section10_monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.section1_4_repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+import static study.datajpa.section10_monitoring.QueryCountAssertions.*;
+
+@SpringBootTest
+@Transactional
+@ExtendWith(QueryCountExtension.class)
+class QueryCountInspectorTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void lazyTeamIsNPlusOne() {
+        saveMembersWithTeams(3);
+
+        resetQueryCount();
+        List<Member> members = memberRepository.findByUsername("qc-member");
+        members.forEach(member -> member.getTeam().getName());
+
+        //회원 조회 1 + 팀 3개 각각 1 = N + 1
+        assertSelectCount(1 + 3);
+    }
+
+    @Test
+    public void twoPhasePagingHasFixedSelectCount() {
+        saveMembersWithTeams(3);
+
+        resetQueryCount();
+        Page<Member> page = memberRepository.findAllWithTeam(PageRequest.of(0, 2, Sort.by("id")));
+        page.getContent().forEach(member -> {
+            if (member.getTeam() != null) {
+                member.getTeam().getName();
+            }
+        });
+
+        //ID 페이징 + count + in 절 페치 조인
+        assertSelectCount(3);
+    }
+
+    private void saveMembersWithTeams(int count) {
+        for (int i = 0; i < count; i++) {
+            Team team = new Team("qc-team" + i);
+            em.persist(team);
+            em.persist(new Member("qc-member", 10, team));
+        }
+        em.flush();
+        em.clear();
+    }
+}
@@ -0,0 +1,148 @@
+package study.datajpa.section11_fetch;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.section10_monitoring.QueryCount;
+import study.datajpa.section10_monitoring.QueryCounter;
+import study.datajpa.section1_4_repository.MemberRepository;
+import study.datajpa.section9_bulk.MemberImportRow;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * 지연 로딩 N + 1 vs batch fetch vs subselect vs 페치 조인 vs 엔티티 그래프
+ *
+ * ./gradlew benchmarkTest --tests "*FetchBenchmark"
+ * -> LazySelectFetchBenchmark : 설정 없음 (N + 1)
+ * -> BatchFetchBenchmark : datajpa.fetch.default-batch-size=100
+ * -> SubselectFetchBenchmark : Team.members subselect + Member.team batch
+ * -> 페치 조인, 엔티티 그래프는 fetch 설정과 상관 없어서 모든 클래스에서 같이 출력한다
+ *
+ * 회원 1k / 10k / 100k, 팀당 회원 10명 - 커밋된 데이터로 측정 (@Transactional 없음)
+ * */
+@Tag("benchmark")
+abstract class AbstractFetchStrategyBenchmark {
+
+    private static final int[] MEMBER_COUNTS = {1_000, 10_000, 100_000};
+    private static final int MEMBERS_PER_TEAM = 10;
+    private static final int INSERT_CHUNK = 10_000;
+    private static final int WARMUP = 2;
+    private static final int ITERATIONS = 5;
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    EntityManager em;
+
+    abstract String configName();
+
+    @AfterEach
+    void cleanUp() {
+        deleteSeed();
+    }
+
+    @Test
+    public void fetchStrategies() {
+        for (int memberCount : MEMBER_COUNTS) {
+            deleteSeed();
+            seed(memberCount);
+
+            System.out.printf("[%s] members = %d, teams = %d%n", configName(), memberCount, memberCount / MEMBERS_PER_TEAM);
+            measure("Member.team (lazy)", () -> {
+                List<Member> members = em.createQuery(
+                        "select m from Member m where m.username like 'bench-fetch-%'", Member.class).getResultList();
+                members.forEach(member -> member.getTeam().getName());
+                return members.size();
+            });
+            measure("Team.members (lazy)", () -> {
+                List<Team> teams = em.createQuery(
+                        "select t from Team t where t.name like 'bench-fetch-%'", Team.class).getResultList();
+                teams.forEach(team -> Hibernate.initialize(team.getMembers()));
+                return teams.size();
+            });
+            measure("fetch join", () -> {
+                List<Member> members = memberRepository.findMemberFetchJoin();
+                members.forEach(member -> nameOf(member.getTeam()));
+                return members.size();
+            });
+            measure("entity graph", () -> {
+                List<Member> members = memberRepository.findAll();
+                members.forEach(member -> nameOf(member.getTeam()));
+                return members.size();
+            });
+        }
+    }
+
+    private void measure(String name, Supplier<Integer> scenario) {
+        for (int i = 0; i < WARMUP; i++) {
+            transactionTemplate.execute(status -> withoutSecondLevelCache(scenario));
+        }
+
+        long totalNanos = 0;
+        QueryCount queryCount = null;
+        for (int i = 0; i < ITERATIONS; i++) {
+            QueryCounter.start();
+            long start = System.nanoTime();
+            transactionTemplate.execute(status -> withoutSecondLevelCache(scenario));
+            totalNanos += System.nanoTime() - start;
+            queryCount = QueryCounter.stop();
+        }
+        System.out.printf("  %-22s avg = %9.2f ms, select = %d%n",
+                name, totalNanos / (double) ITERATIONS / 1_000_000, queryCount.getSelect());
+    }
+
+    //2차 캐시가 warmup 에서 채워지면 지연 로딩이 DB 에 가지 않는다 - fetch 전략만 비교
+    private Integer withoutSecondLevelCache(Supplier<Integer> scenario) {
+        em.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        return scenario.get();
+    }
+
+    private String nameOf(Team team) {
+        return team == null ? null : team.getName();
+    }
+
+    private void seed(int memberCount) {
+        Set<String> teamNames = new LinkedHashSet<>();
+        for (int i = 0; i < memberCount / MEMBERS_PER_TEAM; i++) {
+            teamNames.add("bench-fetch-team" + i);
+        }
+        Map<String, Long> teamIds = memberRepository.resolveTeamIds(teamNames);
+
+        List<MemberImportRow> rows = new ArrayList<>(INSERT_CHUNK);
+        for (int i = 0; i < memberCount; i++) {
+            rows.add(new MemberImportRow("bench-fetch-" + i, i % 100, "bench-fetch-team" + (i / MEMBERS_PER_TEAM)));
+            if (rows.size() == INSERT_CHUNK) {
+                memberRepository.insertMembers(rows, teamIds);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            memberRepository.insertMembers(rows, teamIds);
+        }
+    }
+
+    private void deleteSeed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.username like 'bench-fetch-%'").executeUpdate();
+            em.createQuery("delete from Team t where t.name like 'bench-fetch-%'").executeUpdate();
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package study.datajpa.section11_fetch;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "datajpa.fetch.default-batch-size=100")
+class BatchFetchBenchmark extends AbstractFetchStrategyBenchmark {
+
+    @Override
+    String configName() {
+        return "batch fetch 100";
+    }
+}
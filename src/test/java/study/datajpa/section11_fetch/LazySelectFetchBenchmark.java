@@ -0,0 +1,15 @@
+package study.datajpa.section11_fetch;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+        "datajpa.fetch.associations[Team.members].strategy=select",
+        "datajpa.fetch.associations[Member.team].strategy=select"
+})
+class LazySelectFetchBenchmark extends AbstractFetchStrategyBenchmark {
+
+    @Override
+    String configName() {
+        return "lazy select (N + 1)";
+    }
+}
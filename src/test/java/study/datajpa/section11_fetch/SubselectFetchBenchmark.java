@@ -0,0 +1,16 @@
+package study.datajpa.section11_fetch;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+        "datajpa.fetch.associations[Team.members].strategy=subselect",
+        "datajpa.fetch.associations[Member.team].strategy=batch",
+        "datajpa.fetch.associations[Member.team].batch-size=100"
+})
+class SubselectFetchBenchmark extends AbstractFetchStrategyBenchmark {
+
+    @Override
+    String configName() {
+        return "subselect + batch";
+    }
+}
@@ -0,0 +1,30 @@
+package study.datajpa.section12_projection;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import study.datajpa.projection.ProjectionMappers;
+import study.datajpa.section7_other_features.NestedClosedProjections;
+import study.datajpa.section7_other_features.UsernameOnly;
+
+class ProjectionQueriesTest {
+
+    @Test
+    public void rootProjection() {
+        Assertions.assertThat(ProjectionQueries.selectFrom("Member", "m", ProjectionMappers.get(UsernameOnly.class)))
+                .isEqualTo("select m.username from Member m");
+    }
+
+    @Test
+    public void nestedProjectionUsesLeftJoin() {
+        Assertions.assertThat(ProjectionQueries.selectFrom("Member", "m", ProjectionMappers.get(NestedClosedProjections.class)))
+                .isEqualTo("select m.username, m_j1.name from Member m left join m.team m_j1");
+    }
+
+    @Test
+    public void nestedNullWhenJoinIsEmpty() {
+        NestedClosedProjections projection = ProjectionMappers.get(NestedClosedProjections.class).map(new Object[]{"member1", null});
+
+        Assertions.assertThat(projection.getUsername()).isEqualTo("member1");
+        Assertions.assertThat(projection.getTeam()).isNull();
+    }
+}
@@ -0,0 +1,136 @@
+package study.datajpa.section13_specification;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+@SpringBootTest
+@Transactional
+class SpecificationQueryExecutorTest {
+
+    @Autowired
+    SpecificationQueryExecutor executor;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @BeforeEach
+    void setUp() {
+        Team teamA = new Team("spec-teamA");
+        Team teamB = new Team("spec-teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("spec-member1", 10, teamA));
+        em.persist(new Member("spec-member2", 20, teamA));
+        em.persist(new Member("spec-member3", 30, teamB));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void sameShapeReusesJpql() {
+        QuerySpec<Member> first = MemberQuerySpecs.teamName("spec-teamA").and(MemberQuerySpecs.ageGoe(15));
+        QuerySpec<Member> second = MemberQuerySpecs.teamName("spec-teamB").and(MemberQuerySpecs.ageGoe(0));
+        Sort sort = Sort.by("username");
+
+        List<Member> firstResult = executor.findAll(Member.class, first, sort);
+        int cacheSize = executor.cacheSize();
+        List<Member> secondResult = executor.findAll(Member.class, second, sort);
+
+        //값만 다르고 shape 가 같다 - 캐시된 JPQL 재사용
+        Assertions.assertThat(first.shape()).isEqualTo(second.shape());
+        Assertions.assertThat(executor.cacheSize()).isEqualTo(cacheSize);
+        Assertions.assertThat(executor.selectJpql(Member.class, first, sort)).contains(":p0", ":p1");
+
+        Assertions.assertThat(firstResult).extracting(Member::getUsername).containsExactly("spec-member2");
+        Assertions.assertThat(secondResult).extracting(Member::getUsername).containsExactly("spec-member3");
+    }
+
+    @Test
+    public void emptyConditionsDropOutOfShape() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("spec-teamA");
+
+        QuerySpec<Member> spec = MemberQuerySpecs.search(condition);
+
+        Assertions.assertThat(spec.shape()).isEqualTo("Member.teamName");
+        Assertions.assertThat(spec.values()).containsExactly("spec-teamA");
+    }
+
+    @Test
+    public void teamSpecsShareOneJoin() {
+        QuerySpec<Member> spec = MemberQuerySpecs.teamName("spec-teamA").and(MemberQuerySpecs.teamNameLike("spec-"));
+
+        String jpql = executor.selectJpql(Member.class, spec, Sort.unsorted());
+
+        Assertions.assertThat(jpql.split(" join ")).hasSize(2);
+        Assertions.assertThat(executor.findAll(Member.class, spec, Sort.unsorted())).hasSize(2);
+    }
+
+    @Test
+    public void page() {
+        QuerySpec<Member> spec = MemberQuerySpecs.teamNameLike("spec-");
+
+        Page<Member> page = executor.findAll(Member.class, spec, PageRequest.of(0, 2, Sort.by("username")));
+
+        Assertions.assertThat(page.getTotalElements()).isEqualTo(3);
+        Assertions.assertThat(page.getContent()).extracting(Member::getUsername).containsExactly("spec-member1", "spec-member2");
+    }
+
+    @Test
+    public void countDropsFetchAndOrderBy() {
+        QuerySpec<Member> spec = MemberQuerySpecs.fetchTeam().and(MemberQuerySpecs.ageGoe(15));
+
+        String countJpql = executor.countJpql(Member.class, spec);
+
+        //count 쿼리를 만들때 fetchTeam 은 페치 조인을 만들지 않는다
+        Assertions.assertThat(countJpql).startsWith("select count(").doesNotContain("join", "order by");
+        Assertions.assertThat(executor.count(Member.class, spec))
+                .isEqualTo(em.createQuery("select count(m) from Member m where m.age >= 15", Long.class).getSingleResult());
+    }
+
+    @Test
+    public void countKeepsJoinUsedByPredicate() {
+        QuerySpec<Member> spec = MemberQuerySpecs.teamName("spec-teamA");
+
+        Assertions.assertThat(executor.countJpql(Member.class, spec)).contains("inner join");
+        Assertions.assertThat(executor.count(Member.class, spec)).isEqualTo(2);
+    }
+
+    @Test
+    public void sliceAndExistsWithoutCount() {
+        QuerySpec<Member> spec = MemberQuerySpecs.teamNameLike("spec-");
+
+        Slice<Member> first = executor.findSlice(Member.class, spec, PageRequest.of(0, 2, Sort.by("username")));
+        Slice<Member> last = executor.findSlice(Member.class, spec, PageRequest.of(1, 2, Sort.by("username")));
+
+        Assertions.assertThat(first.hasNext()).isTrue();
+        Assertions.assertThat(first.getContent()).hasSize(2);
+        Assertions.assertThat(last.hasNext()).isFalse();
+        Assertions.assertThat(executor.exists(Member.class, spec)).isTrue();
+        Assertions.assertThat(executor.exists(Member.class, MemberQuerySpecs.teamName("spec-none"))).isFalse();
+    }
+
+    @Test
+    public void countAndExistsWithFetchAndJoinedPredicate() {
+        QuerySpec<Member> spec = MemberQuerySpecs.fetchTeam().and(MemberQuerySpecs.teamName("spec-teamA"));
+
+        //페치 조인은 빠지고 teamName 이 요청한 inner join 하나만 남는다
+        Assertions.assertThat(executor.countJpql(Member.class, spec)).doesNotContain("fetch").contains("inner join");
+        Assertions.assertThat(executor.findAll(Member.class, spec, PageRequest.of(0, 1)).getTotalElements()).isEqualTo(2);
+        Assertions.assertThat(executor.exists(Member.class, spec)).isTrue();
+    }
+}
@@ -0,0 +1,99 @@
+package study.datajpa.section14_persistence_context;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.section10_monitoring.QueryCountExtension;
+import study.datajpa.section1_4_repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+import static study.datajpa.section10_monitoring.QueryCountAssertions.*;
+
+/**
+ * 벌크 update 후 같은 엔티티들을 다시 사용할때 select 수 비교
+ * -> clearAutomatically: 전부 다시 조회, @EvictAfterModifying: 조건 조회 1 + refresh 1
+ * */
+@SpringBootTest
+@Transactional
+@ExtendWith(QueryCountExtension.class)
+class SelectiveEvictionTest {
+
+    private static final int TEAMS = 5;
+    private static final int MEMBERS = 20;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    List<Team> teams = new ArrayList<>();
+    List<Member> members = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < TEAMS; i++) {
+            Team team = new Team("evict-team" + i);
+            em.persist(team);
+            teams.add(team);
+        }
+        //age 0 ~ 19, bulk 대상은 age >= 15 인 5명
+        for (int i = 0; i < MEMBERS; i++) {
+            Member member = new Member("evict-member" + i, i, teams.get(i % TEAMS));
+            em.persist(member);
+            members.add(member);
+        }
+        em.flush();
+    }
+
+    @Test
+    public void clearAutomaticallyReloadsEverything() {
+        resetQueryCount();
+        memberRepository.bulkAgePlus(15);
+        touchAll();
+
+        //회원 20 + 팀 5 - 전부 다시 select
+        assertSelectCount(MEMBERS + TEAMS);
+        assertUpdateCount(1);
+    }
+
+    @Test
+    public void selectiveEvictionReloadsOnlyAffected() {
+        resetQueryCount();
+        memberRepository.bulkAgePlusSelective(15);
+        touchAll();
+
+        //조건에 맞는 id 조회 1 + refresh(in 쿼리) 1 - 이후 find 는 모두 영속성 컨텍스트에서
+        assertSelectCount(2);
+        assertUpdateCount(1);
+
+        //조건에 안맞는 회원, 팀은 같은 객체 그대로
+        Assertions.assertThat(em.contains(members.get(10))).isTrue();
+        Assertions.assertThat(em.find(Member.class, members.get(10).getId())).isSameAs(members.get(10));
+        Assertions.assertThat(em.contains(teams.get(0))).isTrue();
+
+        //조건에 맞는 회원은 준영속 -> 다시 로딩된 객체는 바뀐 값
+        Member bulkTarget = members.get(15);
+        Assertions.assertThat(em.contains(bulkTarget)).isFalse();
+        Assertions.assertThat(em.find(Member.class, bulkTarget.getId()).getAge()).isEqualTo(16);
+    }
+
+    private void touchAll() {
+        for (Team team : teams) {
+            em.find(Team.class, team.getId());
+        }
+        for (Member member : members) {
+            em.find(Member.class, member.getId()).getAge();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package study.datajpa.section15_auditing;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+
+/**
+ * timestamp-scope: flush - FlushClockInterceptor.postFlush 에서 시각을 비운다
+ *
+ * AuditingClock 설정은 static 이다 - 다른 테스트 컨텍스트(application.yml 기본값)에 영향이 없도록 끝나면 되돌린다
+ * */
+@SpringBootTest(properties = "datajpa.auditing.timestamp-scope=flush")
+@Transactional
+class AuditingClockFlushScopeTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @AfterAll
+    static void restoreDefaultScope() {
+        AuditingClock.configure(TimestampScope.TRANSACTION, LocalDateTime::now);
+    }
+
+    @Test
+    public void newTimestampAfterFlush() throws Exception {
+        Member first = new Member("clock-flush-member1", 1);
+        Member second = new Member("clock-flush-member2", 2);
+        em.persist(first);
+        Thread.sleep(5);
+        em.persist(second);
+        em.flush();
+
+        //같은 트랜잭션이어도 flush 다음 엔티티부터 새 시각
+        Thread.sleep(5);
+        Member third = new Member("clock-flush-member3", 3);
+        em.persist(third);
+        em.flush();
+
+        Assertions.assertThat(AuditingClock.scope()).isEqualTo(TimestampScope.FLUSH);
+        Assertions.assertThat(second.getCreatedDate()).isEqualTo(first.getCreatedDate());
+        Assertions.assertThat(third.getCreatedDate()).isAfter(first.getCreatedDate());
+    }
+}
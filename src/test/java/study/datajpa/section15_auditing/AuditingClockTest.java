@@ -0,0 +1,48 @@
+package study.datajpa.section15_auditing;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * timestamp-scope: transaction (application.yml 기본값)
+ * */
+@SpringBootTest
+@Transactional
+class AuditingClockTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void sameTimestampInOneTransaction() throws Exception {
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Member member = new Member("clock-member" + i, i);
+            em.persist(member);
+            members.add(member);
+            Thread.sleep(1);
+        }
+        em.flush();
+
+        Assertions.assertThat(members)
+                .extracting(Member::getCreatedDate)
+                .containsOnly(members.get(0).getCreatedDate());
+        Assertions.assertThat(members.get(9).getLastModifiedDate()).isEqualTo(members.get(0).getCreatedDate());
+    }
+
+    @Test
+    public void coarseClock() {
+        //tick 사이에는 같은 객체 - 새로 만들지 않는다
+        try (CoarseClock clock = new CoarseClock(60_000)) {
+            Assertions.assertThat(clock.get()).isSameAs(clock.get());
+        }
+    }
+}
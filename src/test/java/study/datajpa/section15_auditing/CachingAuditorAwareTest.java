@@ -0,0 +1,66 @@
+package study.datajpa.section15_auditing;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+class CachingAuditorAwareTest {
+
+    @Autowired
+    AuditorAware<String> auditorAware;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    public void sameAuditorInOneTransaction() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        String first = tx.execute(status -> {
+            String auditor = auditorAware.getCurrentAuditor().orElseThrow();
+            Assertions.assertThat(auditorAware.getCurrentAuditor()).contains(auditor);
+            return auditor;
+        });
+        String second = tx.execute(status -> auditorAware.getCurrentAuditor().orElseThrow());
+
+        //트랜잭션이 다르면 다시 구한다
+        Assertions.assertThat(second).isNotEqualTo(first);
+    }
+
+    @Test
+    public void resolvesOncePerTransaction() {
+        AtomicInteger calls = new AtomicInteger();
+        CachingAuditorAware<String> caching = new CachingAuditorAware<>(() -> {
+            calls.incrementAndGet();
+            return Optional.of("auditor");
+        });
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < 100; i++) {
+                caching.getCurrentAuditor();
+            }
+        });
+        Assertions.assertThat(calls.get()).isEqualTo(1);
+
+        //트랜잭션, 요청 밖에서는 매번
+        caching.getCurrentAuditor();
+        Assertions.assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void randomUuidIsVersion4() {
+        UUID uuid = RandomIds.uuid();
+
+        Assertions.assertThat(uuid.version()).isEqualTo(4);
+        Assertions.assertThat(uuid.variant()).isEqualTo(2);
+        Assertions.assertThat(UUID.fromString(uuid.toString())).isEqualTo(uuid);
+    }
+}
@@ -0,0 +1,154 @@
+package study.datajpa.section16_changelog;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.section1_4_repository.MemberJpaRepository;
+import study.datajpa.section1_4_repository.MemberRepository;
+import study.datajpa.section9_bulk.MemberImportRow;
+import study.datajpa.support.CommittedDataTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 커밋 후에만 기록된다
+ * */
+class ChangeLogPipelineTest extends CommittedDataTest {
+
+    @Autowired
+    ChangeLogPipeline changeLogPipeline;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    Long memberId;
+    Long teamId;
+    Long lastLogId;
+
+    @Override
+    protected void cleanUp() {
+        deleteLike("Member", "username", "change-log-");
+        deleteLike("Team", "name", "change-log-");
+        em.createQuery("delete from ChangeLog c where c.entityId in :ids")
+                .setParameter("ids", Stream.of(memberId, teamId).filter(Objects::nonNull).collect(Collectors.toList()))
+                .executeUpdate();
+        if (lastLogId != null) {
+            em.createQuery("delete from ChangeLog c where c.entityId is null and c.id > :lastId")
+                    .setParameter("lastId", lastLogId)
+                    .executeUpdate();
+        }
+    }
+
+    @Test
+    public void recordsCommittedChanges() throws Exception {
+        tx.executeWithoutResult(status -> {
+            Team team = new Team("change-log-team");
+            em.persist(team);
+            Member member = new Member("change-log-member", 10, team);
+            em.persist(member);
+            memberId = member.getId();
+            teamId = team.getId();
+        });
+        tx.executeWithoutResult(status -> em.find(Member.class, memberId).changeUserName("change-log-renamed"));
+        //롤백된 변경은 남지 않는다
+        tx.executeWithoutResult(status -> {
+            em.find(Team.class, teamId).changeTeamName("change-log-rolled-back");
+            em.flush();
+            status.setRollbackOnly();
+        });
+
+        List<ChangeLog> memberLogs = awaitLogs("Member", memberId, 2);
+        Assertions.assertThat(memberLogs).extracting(ChangeLog::getAction)
+                .containsExactly(ChangeAction.INSERT, ChangeAction.UPDATE);
+        Assertions.assertThat(memberLogs.get(1).getDetail()).contains("username=change-log-renamed", "teamId=" + teamId);
+
+        List<ChangeLog> teamLogs = awaitLogs("Team", teamId, 1);
+        Assertions.assertThat(teamLogs).extracting(ChangeLog::getAction).containsExactly(ChangeAction.INSERT);
+
+        Assertions.assertThat(changeLogPipeline.metrics().getWritten()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    public void requiresNewIsLoggedEvenIfOuterRollsBack() throws Exception {
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        tx.executeWithoutResult(status -> {
+            Team team = new Team("change-log-outer");
+            em.persist(team);
+            em.flush();
+            teamId = team.getId();
+            //안쪽 트랜잭션은 따로 커밋 - 바깥 트랜잭션 이벤트 목록에 섞이면 바깥 롤백때 같이 사라진다
+            requiresNew.executeWithoutResult(inner -> {
+                Member member = new Member("change-log-inner", 10);
+                em.persist(member);
+                memberId = member.getId();
+            });
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertThat(awaitLogs("Member", memberId, 1)).extracting(ChangeLog::getAction)
+                .containsExactly(ChangeAction.INSERT);
+        //같은 writer 가 순서대로 저장 - 안쪽 이력이 보일때 바깥 이력이 없으면 남지 않은 것
+        Assertions.assertThat(logs("Team", teamId)).isEmpty();
+    }
+
+    @Test
+    public void bulkModificationsAreLogged() throws Exception {
+        lastLogId = tx.execute(status -> em.createQuery("select coalesce(max(c.id), 0) from ChangeLog c", Long.class)
+                .getSingleResult());
+
+        //벌크 쿼리, JDBC insert 는 엔티티 리스너를 거치지 않는다 - 호출마다 한건씩 직접 기록
+        tx.executeWithoutResult(status -> {
+            Member member = new Member("change-log-bulk", 7000);
+            em.persist(member);
+            memberId = member.getId();
+            memberRepository.bulkAgePlus(7000);
+            memberJpaRepository.bulkAgePlus(7001);
+            memberRepository.insertMembers(List.of(new MemberImportRow("change-log-imported", 7000, null)), Map.of());
+        });
+
+        List<ChangeLog> logs = List.of();
+        for (int i = 0; i < 100 && logs.size() < 3; i++) {
+            Thread.sleep(50);
+            logs = tx.execute(status -> em.createQuery(
+                            "select c from ChangeLog c where c.entityId is null and c.id > :lastId order by c.id", ChangeLog.class)
+                    .setParameter("lastId", lastLogId)
+                    .getResultList());
+        }
+        Assertions.assertThat(logs).extracting(ChangeLog::getAction)
+                .containsExactly(ChangeAction.BULK_UPDATE, ChangeAction.BULK_UPDATE, ChangeAction.BULK_INSERT);
+        Assertions.assertThat(logs).extracting(ChangeLog::getEntityType).containsOnly("Member");
+        Assertions.assertThat(logs.get(0).getDetail()).contains("MemberRepository.bulkAgePlus", "rows=1");
+        Assertions.assertThat(logs.get(1).getDetail()).contains("MemberJpaRepository.bulkAgePlus", "rows=1");
+        Assertions.assertThat(logs.get(2).getDetail()).contains("insertMembers", "rows=1");
+    }
+
+    // writer 스레드가 비동기로 저장 - 최대 5초 기다린다
+    private List<ChangeLog> awaitLogs(String entityType, Long entityId, int expected) throws InterruptedException {
+        List<ChangeLog> logs = List.of();
+        for (int i = 0; i < 100 && logs.size() < expected; i++) {
+            Thread.sleep(50);
+            logs = logs(entityType, entityId);
+        }
+        return logs;
+    }
+
+    private List<ChangeLog> logs(String entityType, Long entityId) {
+        return tx.execute(status -> em.createQuery(
+                        "select c from ChangeLog c where c.entityType = :type and c.entityId = :id order by c.id",
+                        ChangeLog.class)
+                .setParameter("type", entityType)
+                .setParameter("id", entityId)
+                .getResultList());
+    }
+}
@@ -0,0 +1,70 @@
+package study.datajpa.section16_changelog;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class MpscRingBufferTest {
+
+    @Test
+    public void rejectsWhenFull() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+
+        Assertions.assertThat(buffer.capacity()).isEqualTo(4);
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertThat(buffer.offer(i)).isTrue();
+        }
+        Assertions.assertThat(buffer.offer(4)).isFalse();
+
+        Assertions.assertThat(buffer.poll()).isEqualTo(0);
+        Assertions.assertThat(buffer.offer(4)).isTrue();
+        Assertions.assertThat(buffer.size()).isEqualTo(4);
+    }
+
+    @Test
+    public void concurrentProducers() throws Exception {
+        int producers = 8;
+        int perProducer = 10_000;
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+
+        //소비자는 이 스레드 하나 - 모든 값이 한번씩만 나온다
+        Set<Integer> received = new HashSet<>();
+        List<Integer> batch = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (received.size() < producers * perProducer && System.nanoTime() < deadline) {
+            batch.clear();
+            buffer.drainTo(batch, 100);
+            for (Integer value : batch) {
+                Assertions.assertThat(received.add(value)).isTrue();
+            }
+        }
+        executor.shutdownNow();
+
+        Assertions.assertThat(received).hasSize(producers * perProducer);
+        Assertions.assertThat(buffer.poll()).isNull();
+    }
+}
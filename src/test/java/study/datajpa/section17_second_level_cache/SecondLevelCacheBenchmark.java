@@ -0,0 +1,105 @@
+package study.datajpa.section17_second_level_cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.section10_monitoring.QueryCount;
+import study.datajpa.section10_monitoring.QueryCounter;
+import study.datajpa.section1_4_repository.MemberRepository;
+import study.datajpa.section5_domain_convertor_controller.MemberController;
+import study.datajpa.section9_bulk.MemberImportRow;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * /members3 - 2차 캐시로 줄어드는 DB 왕복 수
+ *
+ * ./gradlew benchmarkTest --tests "*SecondLevelCacheBenchmark"
+ *
+ * -> findAllWithTeam : 기존 방식 - ID 페이징 + count + in 절 페치 조인 (JPQL 은 2차 캐시를 보지 않는다)
+ * -> /members3 cold : 캐시가 비어있을때 (evictAll 후 첫 요청)
+ * -> /members3 warm : 같은 페이지들을 다시 - 회원, 팀은 캐시에서
+ *
+ * 요청 하나 = 트랜잭션 하나 (웹 요청의 OSIV 대신)
+ * */
+@Tag("benchmark")
+@SpringBootTest
+class SecondLevelCacheBenchmark {
+
+    private static final int MEMBERS = 10_000;
+    private static final int MEMBERS_PER_TEAM = 10;
+    private static final int PAGE_SIZE = 20;
+    private static final int PAGES = 50;
+
+    @Autowired
+    MemberController memberController;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @BeforeEach
+    void seed() {
+        Set<String> teamNames = new LinkedHashSet<>();
+        for (int i = 0; i < MEMBERS / MEMBERS_PER_TEAM; i++) {
+            teamNames.add("bench-l2-team" + i);
+        }
+        List<MemberImportRow> rows = new ArrayList<>(MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            rows.add(new MemberImportRow("bench-l2-" + i, i % 100, "bench-l2-team" + (i / MEMBERS_PER_TEAM)));
+        }
+        memberRepository.insertMembers(rows, memberRepository.resolveTeamIds(teamNames));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            em.createQuery("delete from Member m where m.username like 'bench-l2-%'").executeUpdate();
+            em.createQuery("delete from Team t where t.name like 'bench-l2-%'").executeUpdate();
+        });
+    }
+
+    @Test
+    public void members3RoundTrips() {
+        System.out.printf("[2nd level cache] members = %d, pages = %d x %d%n", MEMBERS, PAGES, PAGE_SIZE);
+        measure("findAllWithTeam", page -> {
+            Page<Member> members = memberRepository.findAllWithTeam(page);
+            members.forEach(member -> member.getTeam().getName());
+            return members.getNumberOfElements();
+        });
+
+        em.getEntityManagerFactory().getCache().evictAll();
+        measure("/members3 cold", page -> memberController.list3(page).getNumberOfElements());
+        measure("/members3 warm", page -> memberController.list3(page).getNumberOfElements());
+    }
+
+    private void measure(String name, Function<PageRequest, Integer> request) {
+        QueryCounter.start();
+        long start = System.nanoTime();
+        for (int i = 0; i < PAGES; i++) {
+            PageRequest page = PageRequest.of(i, PAGE_SIZE, Sort.by("username"));
+            transactionTemplate.execute(status -> request.apply(page));
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        QueryCount queryCount = QueryCounter.stop();
+        System.out.printf("  %-18s total = %8.2f ms, select = %4d (%.1f / request)%n", name,
+                elapsedNanos / 1_000_000.0, queryCount.getSelect(), queryCount.getSelect() / (double) PAGES);
+    }
+}
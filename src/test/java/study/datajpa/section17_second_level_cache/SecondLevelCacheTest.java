@@ -0,0 +1,128 @@
+package study.datajpa.section17_second_level_cache;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.section10_monitoring.QueryCountExtension;
+import study.datajpa.section1_4_repository.MemberRepository;
+import study.datajpa.section9_bulk.MemberImportRow;
+import study.datajpa.support.CommittedDataTest;
+
+import java.util.List;
+import java.util.Map;
+
+import static study.datajpa.section10_monitoring.QueryCountAssertions.*;
+
+/**
+ * 2차 캐시는 커밋된 데이터만 올라간다
+ * */
+@ExtendWith(QueryCountExtension.class)
+class SecondLevelCacheTest extends CommittedDataTest {
+
+    private static final String TEAM_NAME = "l2-team";
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    SecondLevelCacheLoader secondLevelCacheLoader;
+    @Autowired
+    SecondLevelCacheStatistics secondLevelCacheStatistics;
+
+    Long teamId;
+    Long memberId;
+
+    @BeforeEach
+    void setUp() {
+        tx.executeWithoutResult(status -> {
+            Team team = new Team(TEAM_NAME);
+            em.persist(team);
+            Member member = new Member("l2-member", 10, team);
+            em.persist(member);
+            teamId = team.getId();
+            memberId = member.getId();
+        });
+    }
+
+    @Override
+    protected void cleanUp() {
+        deleteLike("Member", "username", "l2-");
+        deleteLike("Team", "name", "l2-");
+    }
+
+    @Test
+    public void findByIdHitsCache() {
+        resetQueryCount();
+        tx.executeWithoutResult(status -> {
+            Member member = memberRepository.findById(memberId).orElseThrow();
+            Assertions.assertThat(member.getTeam().getName()).isEqualTo(TEAM_NAME);
+        });
+
+        //커밋할때 캐시에 올라갔다 - 회원, 팀 모두 select 없음
+        assertSelectCount(0);
+        Assertions.assertThat(secondLevelCacheStatistics.regions())
+                .extracting(SecondLevelCacheStatistics.RegionStatistics::getRegion)
+                .anySatisfy(region -> Assertions.assertThat(region).contains("study.datajpa.entity.Team"));
+    }
+
+    @Test
+    public void loaderQueriesOnlyMisses() {
+        tx.executeWithoutResult(status -> em.getEntityManagerFactory().getCache().evict(Member.class, memberId));
+
+        resetQueryCount();
+        tx.executeWithoutResult(status ->
+                Assertions.assertThat(secondLevelCacheLoader.findAllById(Member.class, List.of(memberId), "team")).hasSize(1));
+        //캐시에 없으면 in 쿼리 1번 -> 조회하면서 다시 캐시에 올라간다
+        assertSelectCount(1);
+
+        resetQueryCount();
+        tx.executeWithoutResult(status ->
+                Assertions.assertThat(secondLevelCacheLoader.findAllById(Member.class, List.of(memberId), "team")).hasSize(1));
+        assertSelectCount(0);
+    }
+
+    @Test
+    public void cachedMembersWithEvictedTeams() {
+        Long otherMemberId = tx.execute(status -> {
+            Team other = new Team("l2-team-other");
+            em.persist(other);
+            Member member = new Member("l2-member-other", 20, other);
+            em.persist(member);
+            return member.getId();
+        });
+        List<Long> ids = List.of(memberId, otherMemberId);
+        //회원은 캐시에, 팀은 캐시에서 빠진 상태
+        tx.executeWithoutResult(status -> secondLevelCacheLoader.findAllById(Member.class, ids, "team"));
+        em.getEntityManagerFactory().getCache().evict(Team.class);
+
+        resetQueryCount();
+        tx.executeWithoutResult(status -> {
+            List<Member> members = secondLevelCacheLoader.findAllById(Member.class, ids, "team");
+            Assertions.assertThat(members).extracting(member -> member.getTeam().getName())
+                    .containsExactlyInAnyOrder(TEAM_NAME, "l2-team-other");
+        });
+        //팀마다 select 하지 않고 팀 in 쿼리 한번
+        assertSelectCount(1);
+    }
+
+    @Test
+    public void jdbcImportEvictsTeamMembers() {
+        //팀원 목록(1명)을 캐시에 올린다
+        tx.executeWithoutResult(status -> Hibernate.initialize(em.find(Team.class, teamId).getMembers()));
+
+        Map<String, Long> teamIds = memberRepository.resolveTeamIds(List.of(TEAM_NAME));
+        memberRepository.insertMembers(List.of(new MemberImportRow("l2-imported", 20, TEAM_NAME)), teamIds);
+
+        //evict 하지 않으면 캐시의 예전 목록(1명)이 나온다
+        Integer size = tx.execute(status -> {
+            Team team = em.find(Team.class, teamId);
+            Hibernate.initialize(team.getMembers());
+            return team.getMembers().size();
+        });
+        Assertions.assertThat(size).isEqualTo(2);
+    }
+}
@@ -0,0 +1,141 @@
+package study.datajpa.section18_result_cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.section10_monitoring.QueryCountExtension;
+import study.datajpa.section1_4_repository.MemberJpaRepository;
+import study.datajpa.section1_4_repository.MemberRepository;
+import study.datajpa.section9_bulk.MemberBulkUpdateService;
+import study.datajpa.support.CommittedDataTest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static study.datajpa.section10_monitoring.QueryCountAssertions.*;
+
+@ExtendWith(QueryCountExtension.class)
+class RepositoryResultCacheTest extends CommittedDataTest {
+
+    private static final List<String> NAMES = List.of("result-cache-1", "result-cache-2");
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+    @Autowired
+    MemberBulkUpdateService memberBulkUpdateService;
+
+    @BeforeEach
+    void setUp() {
+        tx.executeWithoutResult(status -> {
+            Team team = new Team("result-cache-team");
+            em.persist(team);
+            em.persist(new Member(NAMES.get(0), 10, team));
+            em.persist(new Member(NAMES.get(1), 20, team));
+        });
+    }
+
+    @Override
+    protected void cleanUp() {
+        deleteLike("Member", "username", "result-cache-");
+        deleteLike("Team", "name", "result-cache-");
+        deleteLike("BulkUpdateChunk", "jobId", "result-cache-");
+    }
+
+    @Test
+    public void cachedUntilMemberChanges() {
+        List<String> first = memberRepository.findUsernameList();
+        Assertions.assertThat(first).containsAll(NAMES);
+
+        resetQueryCount();
+        Assertions.assertThat(memberRepository.findUsernameList()).isEqualTo(first);
+        assertSelectCount(0);
+
+        //다른 트랜잭션에서 회원 추가 -> 버전이 바뀌어서 다시 조회
+        tx.executeWithoutResult(status -> em.persist(new Member("result-cache-3", 30)));
+        resetQueryCount();
+        Assertions.assertThat(memberRepository.findUsernameList()).contains("result-cache-3");
+        assertSelectCount(1);
+    }
+
+    @Test
+    public void entityResultsAreCachedAsIds() {
+        memberRepository.findByNames(NAMES);
+
+        //캐시 적중 - id 로 2차 캐시에서 찾는다, 조회 쿼리 없음
+        resetQueryCount();
+        List<Member> cached = tx.execute(status -> memberRepository.findByNames(List.of(NAMES.get(0), NAMES.get(1))));
+        Assertions.assertThat(cached).extracting(Member::getUsername).containsExactlyInAnyOrderElementsOf(NAMES);
+        assertSelectCount(0);
+    }
+
+    @Test
+    public void bulkUpdateInvalidates() {
+        memberRepository.findByNames(NAMES);
+
+        //@Modifying 벌크 쿼리 -> ModifyingVersionAspect 가 Member 버전을 올린다
+        tx.executeWithoutResult(status -> memberRepository.bulkAgePlus(20));
+
+        List<Member> members = tx.execute(status -> memberRepository.findByNames(NAMES));
+        Assertions.assertThat(members).extracting(Member::getAge).containsExactlyInAnyOrder(10, 21);
+    }
+
+    @Test
+    public void notCachedInsideWritingTransaction() {
+        tx.executeWithoutResult(status -> {
+            em.persist(new Member("result-cache-uncommitted", 40));
+            //flush 된 커밋 전 값 - 캐시에 올리지 않는다
+            Assertions.assertThat(memberRepository.findUsernameList()).contains("result-cache-uncommitted");
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertThat(memberRepository.findUsernameList()).doesNotContain("result-cache-uncommitted");
+    }
+
+    @Test
+    public void seesOwnUnflushedWrites() {
+        tx.executeWithoutResult(status -> {
+            memberRepository.findUsernameList();
+            em.persist(new Member("result-cache-unflushed", 40));
+            //persist 만 하고 flush 전 - 캐시가 아니라 auto flush 후 조회
+            Assertions.assertThat(memberRepository.findUsernameList()).contains("result-cache-unflushed");
+            status.setRollbackOnly();
+        });
+
+        memberRepository.findUsernameList();
+        tx.executeWithoutResult(status -> {
+            Member member = memberRepository.findByNames(List.of(NAMES.get(0))).get(0);
+            member.changeUserName("result-cache-dirty");
+            //dirty checking 변경도 마찬가지
+            Assertions.assertThat(memberRepository.findUsernameList()).contains("result-cache-dirty");
+            status.setRollbackOnly();
+        });
+    }
+
+    @Test
+    public void pureJpaBulkUpdateInvalidates() {
+        memberRepository.findByNames(NAMES);
+
+        //em.createQuery().executeUpdate() - MemberJpaRepository 에서 직접 버전을 올린다
+        tx.executeWithoutResult(status -> memberJpaRepository.bulkAgePlus(20));
+
+        List<Member> members = tx.execute(status -> memberRepository.findByNames(NAMES));
+        Assertions.assertThat(members).extracting(Member::getAge).containsExactlyInAnyOrder(10, 21);
+    }
+
+    @Test
+    public void chunkedBulkUpdateInvalidates() {
+        memberRepository.findByNames(NAMES);
+
+        //chunk 트랜잭션마다 Member 버전을 올린다 (BulkUpdateExecutor)
+        memberBulkUpdateService.bulkAgePlus("result-cache-" + UUID.randomUUID(), 20, 100, 1);
+
+        List<Member> members = tx.execute(status -> memberRepository.findByNames(NAMES));
+        Assertions.assertThat(members).extracting(Member::getAge).containsExactlyInAnyOrder(10, 21);
+    }
+}
@@ -0,0 +1,102 @@
+package study.datajpa.section19_single_flight;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SingleFlightGroupTest {
+
+    @Test
+    public void concurrentCallsShareOneExecution() throws Exception {
+        int threads = 16;
+        SingleFlightGroup<Long> group = new SingleFlightGroup<>();
+        SingleFlightMetrics metrics = new SingleFlightMetrics();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                SingleFlightGroup.Result result = group.execute(1L, () -> {
+                    executions.incrementAndGet();
+                    started.countDown();
+                    release.await();
+                    return "member1";
+                }, 10_000);
+                metrics.record(result.getRole());
+                return result.getValue();
+            }));
+            //첫번째 호출이 실행중인 상태에서 나머지가 들어오도록
+            if (i == 0) {
+                started.await();
+            }
+        }
+        //나머지가 모두 future 를 기다릴 시간
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            Assertions.assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("member1");
+        }
+        executor.shutdown();
+
+        Assertions.assertThat(executions.get()).isEqualTo(1);
+        Assertions.assertThat(metrics.coalescingRatio()).isEqualTo((double) (threads - 1) / threads);
+        Assertions.assertThat(group.inFlight()).isZero();
+    }
+
+    @Test
+    public void finishedCallIsNotReused() throws Exception {
+        SingleFlightGroup<Long> group = new SingleFlightGroup<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        group.execute(1L, executions::incrementAndGet, 1000);
+        SingleFlightGroup.Result second = group.execute(1L, executions::incrementAndGet, 1000);
+
+        Assertions.assertThat(second.getRole()).isEqualTo(SingleFlightGroup.Role.LEADER);
+        Assertions.assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void failureIsSharedAndTimeoutFallsBack() throws Exception {
+        SingleFlightGroup<Long> group = new SingleFlightGroup<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<?> leader = executor.submit(() -> group.execute(1L, () -> {
+            started.countDown();
+            release.await();
+            throw new IllegalStateException("db down");
+        }, 1000));
+        started.await();
+
+        //leader 가 끝나지 않았다 - 기다리지 않고 직접 실행
+        SingleFlightGroup.Result timedOut = group.execute(1L, () -> "own", 50);
+        Assertions.assertThat(timedOut.getRole()).isEqualTo(SingleFlightGroup.Role.TIMED_OUT);
+        Assertions.assertThat(timedOut.getValue()).isEqualTo("own");
+
+        //기다리는 중에 leader 가 실패하면 같은 예외
+        executor.submit(() -> {
+            Thread.sleep(100);
+            release.countDown();
+            return null;
+        });
+        Assertions.assertThatThrownBy(() -> group.execute(1L, () -> "own", 5000))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("db down");
+        Assertions.assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class);
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,91 @@
+package study.datajpa.section1_4_repository;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.section10_monitoring.QueryCountExtension;
+import study.datajpa.section7_other_features.NestedClosedProjections;
+import study.datajpa.section7_other_features.UsernameOnly;
+import study.datajpa.section7_other_features.UsernameOnlyDto;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import static study.datajpa.section10_monitoring.QueryCountAssertions.assertSelectCount;
+import static study.datajpa.section10_monitoring.QueryCountAssertions.resetQueryCount;
+
+@SpringBootTest
+@Transactional
+@ExtendWith(QueryCountExtension.class)
+class MemberProjectionRepositoryTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void interfaceProjection() {
+        em.persist(new Member("mapped-member", 10));
+        em.flush();
+        em.clear();
+
+        List<UsernameOnly> result = memberRepository.findMappedByUsername("mapped-member", UsernameOnly.class);
+
+        Assertions.assertThat(result).extracting(UsernameOnly::getUsername).containsExactly("mapped-member");
+        //스프링 데이터 JPA 프로젝션과 달리 프록시가 아니다
+        Assertions.assertThat(Proxy.isProxyClass(result.get(0).getClass())).isFalse();
+        Assertions.assertThat(AopUtils.isAopProxy(result.get(0))).isFalse();
+        Assertions.assertThat(result.get(0)).isEqualTo(memberRepository.findMappedByUsername("mapped-member", UsernameOnly.class).get(0));
+    }
+
+    @Test
+    public void classProjection() {
+        em.persist(new Member("mapped-member", 10));
+        em.flush();
+        em.clear();
+
+        List<UsernameOnlyDto> result = memberRepository.findMappedByUsername("mapped-member", UsernameOnlyDto.class);
+
+        Assertions.assertThat(result).extracting(UsernameOnlyDto::getUsername).containsExactly("mapped-member");
+    }
+
+    @Test
+    public void nestedProjection() {
+        Team team = new Team("mapped-team");
+        em.persist(team);
+        em.persist(new Member("mapped-member", 10, team));
+        em.persist(new Member("mapped-member", 20));
+        em.flush();
+        em.clear();
+
+        resetQueryCount();
+        List<NestedClosedProjections> result = memberRepository.findMappedByUsername("mapped-member", NestedClosedProjections.class);
+
+        //select m.username, t.name 한번 - Team 엔티티를 만들지 않는다
+        assertSelectCount(1);
+        Assertions.assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+        Assertions.assertThat(result).extracting(p -> p.getTeam() == null ? null : p.getTeam().getName())
+                .containsExactlyInAnyOrder("mapped-team", null);
+    }
+
+    @Test
+    public void notGeneratedType() {
+        //리포지토리 프록시의 예외 변환(PersistenceExceptionTranslationInterceptor) - IllegalArgumentException 은 cause 로
+        Assertions.assertThatThrownBy(() -> memberRepository.findMappedByUsername("mapped-member", Member.class))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("@GenerateMapper");
+    }
+}
@@ -0,0 +1,100 @@
+package study.datajpa.section20_projection_converter;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.section10_monitoring.QueryCountExtension;
+import study.datajpa.section7_other_features.NestedClosedProjections;
+import study.datajpa.section7_other_features.UsernameOnlyDto;
+import study.datajpa.support.CommittedDataTest;
+
+import static study.datajpa.section10_monitoring.QueryCountAssertions.*;
+
+@ExtendWith(QueryCountExtension.class)
+class ProjectionConverterTest extends CommittedDataTest {
+
+    @Autowired
+    @Qualifier("mvcConversionService")
+    ConversionService conversionService;
+    @Autowired
+    ProjectionConverter projectionConverter;
+
+    Long teamId;
+    Long memberId;
+
+    @BeforeEach
+    void setUp() {
+        projectionConverter.clear();
+        tx.executeWithoutResult(status -> {
+            Team team = new Team("projection-team");
+            em.persist(team);
+            Member member = new Member("projection-member", 10, team);
+            em.persist(member);
+            teamId = team.getId();
+            memberId = member.getId();
+        });
+    }
+
+    @Override
+    protected void cleanUp() {
+        deleteLike("Member", "username", "projection-");
+        deleteLike("Team", "name", "projection-");
+    }
+
+    @Test
+    public void cachedProjection() throws Exception {
+        TypeDescriptor target = parameter("usernameOnly");
+
+        resetQueryCount();
+        UsernameOnlyDto first = (UsernameOnlyDto) conversionService.convert(memberId.toString(), TypeDescriptor.valueOf(String.class), target);
+        Assertions.assertThat(first.getUsername()).isEqualTo("projection-member");
+        assertSelectCount(1);
+
+        resetQueryCount();
+        Assertions.assertThat(conversionService.convert(memberId.toString(), TypeDescriptor.valueOf(String.class), target)).isSameAs(first);
+        assertSelectCount(0);
+
+        Assertions.assertThat(conversionService.convert("-1", TypeDescriptor.valueOf(String.class), target)).isNull();
+    }
+
+    @Test
+    public void nestedProjectionInvalidatedByTeamUpdate() throws Exception {
+        TypeDescriptor target = parameter("nested");
+
+        NestedClosedProjections before = (NestedClosedProjections) conversionService.convert(memberId.toString(), TypeDescriptor.valueOf(String.class), target);
+        Assertions.assertThat(before.getTeam().getName()).isEqualTo("projection-team");
+
+        //team.name 도 select 하므로 Team 변경에도 무효화
+        tx.executeWithoutResult(status -> em.find(Team.class, teamId).changeTeamName("projection-renamed"));
+
+        NestedClosedProjections after = (NestedClosedProjections) conversionService.convert(memberId.toString(), TypeDescriptor.valueOf(String.class), target);
+        Assertions.assertThat(after.getTeam().getName()).isEqualTo("projection-renamed");
+    }
+
+    private TypeDescriptor parameter(String methodName) throws NoSuchMethodException {
+        for (java.lang.reflect.Method method : Handlers.class.getDeclaredMethods()) {
+            if (method.getName().equals(methodName)) {
+                return new TypeDescriptor(new MethodParameter(method, 0));
+            }
+        }
+        throw new NoSuchMethodException(methodName);
+    }
+
+    // @PathVariable 파라미터와 같은 TypeDescriptor 를 만들기 위한 메서드
+    @SuppressWarnings("unused")
+    static class Handlers {
+        void usernameOnly(@ProjectedFrom(Member.class) UsernameOnlyDto member) {
+        }
+
+        void nested(@ProjectedFrom(Member.class) NestedClosedProjections member) {
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package study.datajpa.section21_batch_loader;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.section10_monitoring.QueryCountExtension;
+import study.datajpa.section1_4_repository.MemberJpaRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static study.datajpa.section10_monitoring.QueryCountAssertions.*;
+
+@SpringBootTest
+@Transactional
+@ExtendWith(QueryCountExtension.class)
+class BatchLoaderTest {
+
+    @Autowired
+    BatchLoaders batchLoaders;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    Long[] ids = new Long[3];
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ids.length; i++) {
+            Member member = new Member("batch-loader-" + i, 10);
+            em.persist(member);
+            ids[i] = member.getId();
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    public void loadsCollectedIdsWithOneQuery() {
+        Member managed = em.find(Member.class, ids[0]);
+
+        resetQueryCount();
+        BatchLoader<Member> loader = batchLoaders.loader(Member.class);
+        CompletableFuture<Member> first = loader.load(ids[0]);
+        CompletableFuture<Member> second = loader.load(ids[1]);
+        CompletableFuture<Member> again = loader.load(ids[1]);
+        CompletableFuture<Member> missing = loader.load(-1L);
+        assertSelectCount(0);
+
+        //같은 트랜잭션이면 다른 곳에서 얻은 loader 도 같다 - 모아둔 id 와 같이 한번에
+        List<Member> members = memberJpaRepository.findAllById(Arrays.asList(ids[2], ids[1], ids[2]));
+        assertSelectCount(1);
+
+        Assertions.assertThat(batchLoaders.loader(Member.class)).isSameAs(loader);
+        Assertions.assertThat(members).extracting(Member::getUsername)
+                .containsExactly("batch-loader-2", "batch-loader-1", "batch-loader-2");
+        //영속성 컨텍스트에 있던 엔티티는 그대로
+        Assertions.assertThat(first.join()).isSameAs(managed);
+        Assertions.assertThat(second.join()).isSameAs(again.join()).isSameAs(members.get(1));
+        Assertions.assertThat(missing.join()).isNull();
+    }
+
+    @Test
+    public void managedEntitiesNeedNoQuery() {
+        List<Member> loaded = memberJpaRepository.findAllById(Arrays.asList(ids));
+
+        resetQueryCount();
+        Assertions.assertThat(memberJpaRepository.findAllById(Arrays.asList(ids[1], ids[0]))).containsExactly(loaded.get(1), loaded.get(0));
+        assertSelectCount(0);
+    }
+}
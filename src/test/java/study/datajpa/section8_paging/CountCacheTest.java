@@ -0,0 +1,43 @@
+package study.datajpa.section8_paging;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.WriteVersionListener;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+class CountCacheTest {
+
+    @Test
+    public void cachedUntilMemberChanges() {
+        CountCache countCache = new CountCache(60_000, 100);
+        AtomicInteger queryCount = new AtomicInteger();
+
+        long first = countCache.get(Member.class, "Member.countByAge", new Object[]{10}, () -> queryCount.incrementAndGet() * 100L);
+        long second = countCache.get(Member.class, "Member.countByAge", new Object[]{10}, () -> queryCount.incrementAndGet() * 100L);
+        //파라미터가 다르면 다른 key
+        countCache.get(Member.class, "Member.countByAge", new Object[]{20}, () -> queryCount.incrementAndGet() * 100L);
+
+        Assertions.assertThat(first).isEqualTo(100L);
+        Assertions.assertThat(second).isEqualTo(100L);
+        Assertions.assertThat(queryCount.get()).isEqualTo(2);
+
+        //Member 가 변경되면 다시 count
+        WriteVersionListener.bump(Member.class);
+        long afterWrite = countCache.get(Member.class, "Member.countByAge", new Object[]{10}, () -> queryCount.incrementAndGet() * 100L);
+
+        Assertions.assertThat(afterWrite).isEqualTo(300L);
+    }
+
+    @Test
+    public void expiredByTtl() {
+        CountCache countCache = new CountCache(0, 100);
+        AtomicInteger queryCount = new AtomicInteger();
+
+        countCache.get(Member.class, "Member.count", new Object[0], queryCount::incrementAndGet);
+        countCache.get(Member.class, "Member.count", new Object[0], queryCount::incrementAndGet);
+
+        Assertions.assertThat(queryCount.get()).isEqualTo(2);
+    }
+}
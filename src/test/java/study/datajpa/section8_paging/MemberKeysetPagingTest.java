@@ -0,0 +1,63 @@
+package study.datajpa.section8_paging;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.section1_4_repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+@Transactional
+class MemberKeysetPagingTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void keysetPaging() {
+        //given - username 이 같은 회원은 id 순서로 이어져야 한다
+        Member m1 = memberRepository.save(new Member("keyset-1", 10));
+        Member m2 = memberRepository.save(new Member("keyset-2", 10));
+        Member m3 = memberRepository.save(new Member("keyset-2", 10));
+        Member m4 = memberRepository.save(new Member("keyset-3", 10));
+        em.flush();
+        em.clear();
+
+        //when - "keyset-" 바로 뒤부터 2개씩 가져온다
+        MemberCursor start = new MemberCursor("keyset-", 0L);
+        List<Member> rows = memberRepository.findKeysetAfter(start.getUsername(), start.getId(), PageRequest.of(0, 3));
+        CursorResult<Long> first = CursorResult.of(rows, 2, Member::getId);
+
+        MemberCursor next = MemberCursor.decode(first.getNextCursor());
+        List<Member> nextRows = memberRepository.findKeysetAfter(next.getUsername(), next.getId(), PageRequest.of(0, 3));
+        List<Long> second = nextRows.stream().map(Member::getId).limit(2).collect(Collectors.toList());
+
+        //then
+        Assertions.assertThat(first.getContent()).containsExactly(m1.getId(), m2.getId());
+        Assertions.assertThat(first.isHasNext()).isTrue();
+        Assertions.assertThat(second).containsExactly(m3.getId(), m4.getId());
+    }
+
+    @Test
+    public void cursorEncodeDecode() {
+        MemberCursor cursor = new MemberCursor("user:with:colon", 42L);
+
+        MemberCursor decoded = MemberCursor.decode(cursor.encode());
+
+        Assertions.assertThat(decoded.getUsername()).isEqualTo("user:with:colon");
+        Assertions.assertThat(decoded.getId()).isEqualTo(42L);
+        Assertions.assertThatThrownBy(() -> MemberCursor.decode("not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
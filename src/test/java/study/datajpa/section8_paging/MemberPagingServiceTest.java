@@ -0,0 +1,67 @@
+package study.datajpa.section8_paging;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.section1_4_repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.concurrent.CountDownLatch;
+
+@SpringBootTest
+@Transactional
+class MemberPagingServiceTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    CountCache countCache;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void busyCountExecutorOmitsTotal() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            em.persist(new Member("paging-busy-" + i, 93));
+        }
+        em.flush();
+
+        //스레드 1개, 큐 0 - 이미 실행중인 작업이 있어서 count 작업은 거절된다
+        ThreadPoolTaskExecutor busy = new ThreadPoolTaskExecutor();
+        busy.setCorePoolSize(1);
+        busy.setMaxPoolSize(1);
+        busy.setQueueCapacity(0);
+        busy.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        busy.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        try {
+            MemberPagingService service = new MemberPagingService(memberRepository, countCache, em, busy, transactionManager, 500);
+            CountedPage<Member> page = service.findByAge(93, PageRequest.of(0, 2), CountMode.PARALLEL);
+
+            //현재 스레드에서 count 하지 않고 하한값으로 생략
+            Assertions.assertThat(page.getContent()).hasSize(2);
+            Assertions.assertThat(page.getTotalType()).isEqualTo(TotalType.OMITTED);
+            Assertions.assertThat(page.getTotalElements()).isEqualTo(3);
+        } finally {
+            release.countDown();
+            busy.shutdown();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package study.datajpa.section8_paging;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Arrays;
+
+/**
+ * 순차 count(EXACT) vs 동시 count(PARALLEL) 페이징 지연시간 비교
+ *
+ * ./gradlew benchmarkTest --tests "*ParallelCountBenchmarkTest"
+ *
+ * -> 커밋된 데이터가 있어야 PARALLEL count(다른 커넥션)에 보이므로 @Transactional 을 붙이지 않는다
+ * */
+@Tag("benchmark")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ParallelCountBenchmarkTest {
+
+    private static final int MEMBER_COUNT = 50_000;
+    private static final int AGE = 77;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 300;
+
+    @Autowired
+    MemberPagingService memberPagingService;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @BeforeAll
+    void seed() {
+        for (int start = 0; start < MEMBER_COUNT; start += 1_000) {
+            int from = start;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = from; i < from + 1_000; i++) {
+                    em.persist(new Member("bench-count-" + i, AGE));
+                }
+            });
+        }
+    }
+
+    @AfterAll
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(status ->
+                em.createQuery("delete from Member m where m.username like 'bench-count-%'").executeUpdate());
+    }
+
+    @Test
+    public void sequentialVsParallelCount() {
+        PageRequest pageRequest = PageRequest.of(100, 20);
+
+        long[] sequential = measure(() -> memberPagingService.findByAge(AGE, pageRequest, CountMode.EXACT));
+        long[] parallel = measure(() -> memberPagingService.findByAge(AGE, pageRequest, CountMode.PARALLEL));
+
+        System.out.println("[findByAge] members=" + MEMBER_COUNT + ", page=" + pageRequest);
+        print("EXACT(sequential)", sequential);
+        print("PARALLEL", parallel);
+    }
+
+    private long[] measure(Runnable pageQuery) {
+        for (int i = 0; i < WARMUP; i++) {
+            pageQuery.run();
+        }
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            pageQuery.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private void print(String name, long[] sortedNanos) {
+        double p50 = sortedNanos[(int) (sortedNanos.length * 0.50)] / 1_000_000.0;
+        double p99 = sortedNanos[(int) (sortedNanos.length * 0.99)] / 1_000_000.0;
+        System.out.printf("%-18s p50 = %.3f ms, p99 = %.3f ms%n", name, p50, p99);
+    }
+}
@@ -0,0 +1,67 @@
+package study.datajpa.section8_paging;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.section10_monitoring.QueryCountExtension;
+import study.datajpa.section1_4_repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static study.datajpa.section10_monitoring.QueryCountAssertions.*;
+
+@SpringBootTest
+@Transactional
+@ExtendWith(QueryCountExtension.class)
+class TwoPhasePagingTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void findAllWithTeam() {
+        //given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamB));
+        em.persist(new Member("member3", 30, teamA));
+        em.flush();
+        em.clear();
+
+        //when - id 역순으로 2개
+        resetQueryCount();
+        Page<Member> page = memberRepository.findAllWithTeam(PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id")));
+
+        //ID 페이징 + count + in 절 페치 조인 - team 마다 select 하지 않는다 (N + 1 없음)
+        assertSelectCount(3);
+
+        //then - 1단계 ID 순서가 유지되고 team 은 이미 로딩되어 있다
+        List<Long> ids = page.getContent().stream().map(Member::getId).collect(Collectors.toList());
+        Assertions.assertThat(ids).isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        Assertions.assertThat(page.getContent()).hasSize(2);
+        Assertions.assertThat(page.getTotalElements()).isGreaterThanOrEqualTo(3);
+        for (Member member : page.getContent()) {
+            Assertions.assertThat(Hibernate.isInitialized(member.getTeam())).isTrue();
+            member.getTeam().getName();
+        }
+        assertSelectCount(3);
+    }
+}
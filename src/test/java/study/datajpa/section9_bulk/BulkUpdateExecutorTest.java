@@ -0,0 +1,125 @@
+package study.datajpa.section9_bulk;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import study.datajpa.entity.Member;
+import study.datajpa.support.CommittedDataTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * chunk 마다 커밋된다 - 다른 테스트 데이터와 겹치지 않도록 나이를 5000 이상으로 사용
+ * */
+class BulkUpdateExecutorTest extends CommittedDataTest {
+
+    private static final int MEMBERS = 250;
+    private static final int BASE_AGE = 5000;
+
+    @Autowired
+    MemberBulkUpdateService memberBulkUpdateService;
+    @Autowired
+    BulkUpdateExecutor bulkUpdateExecutor;
+
+    String jobId;
+
+    @BeforeEach
+    void setUp() {
+        jobId = "bulk-test-" + UUID.randomUUID();
+        tx.executeWithoutResult(status -> {
+            for (int i = 0; i < MEMBERS; i++) {
+                //절반만 대상 (age >= BASE_AGE)
+                em.persist(new Member("bulk-update-" + i, i % 2 == 0 ? BASE_AGE : BASE_AGE - 1));
+            }
+        });
+    }
+
+    @Override
+    protected void cleanUp() {
+        deleteLike("Member", "username", "bulk-update-");
+        deleteLike("BulkUpdateChunk", "jobId", jobId);
+    }
+
+    @Test
+    public void bulkAgePlusInChunks() {
+        BulkUpdateResult result = memberBulkUpdateService.bulkAgePlus(jobId, BASE_AGE, 50, 1);
+
+        Assertions.assertThat(result.getRows()).isEqualTo(MEMBERS / 2);
+        Assertions.assertThat(result.getChunks()).isGreaterThan(1);
+        Assertions.assertThat(result.getSkippedChunks()).isZero();
+        Assertions.assertThat(ages()).containsOnly(BASE_AGE - 1, BASE_AGE + 1);
+    }
+
+    @Test
+    public void resumeSkipsCompletedChunks() {
+        BulkUpdateResult first = memberBulkUpdateService.bulkAgePlus(jobId, BASE_AGE, 50, 1);
+
+        //같은 jobId 로 다시 실행 - 완료된 chunk 는 다시 update 하지 않는다
+        BulkUpdateResult second = memberBulkUpdateService.bulkAgePlus(jobId, BASE_AGE, 50, 1);
+
+        Assertions.assertThat(second.getRows()).isZero();
+        Assertions.assertThat(second.getSkippedChunks()).isEqualTo(first.getChunks());
+        Assertions.assertThat(ages()).containsOnly(BASE_AGE - 1, BASE_AGE + 1);
+    }
+
+    @Test
+    public void resumeAfterFailedChunk() {
+        //대상 회원 중 가운데 id 에서 0 으로 나누기 - 그 chunk 는 롤백, 앞 chunk 들은 커밋된 상태로 멈춘다
+        List<Long> targetIds = tx.execute(status -> em.createQuery(
+                        "select m.id from Member m where m.username like 'bulk-update-%' and m.age >= :age order by m.id", Long.class)
+                .setParameter("age", BASE_AGE)
+                .getResultList());
+        Long failId = targetIds.get(targetIds.size() / 2);
+        BulkUpdateJob failing = new BulkUpdateJob(jobId, Member.class,
+                "update Member m set m.age = m.age + 1 + 0 / (m.id - :failId)" +
+                        " where m.age >= :age and m.id between :fromId and :toId",
+                Map.of("age", BASE_AGE, "failId", failId), 50, 1);
+
+        Assertions.assertThatThrownBy(() -> bulkUpdateExecutor.execute(failing))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("완료된 " + completedChunks() + " 개 chunk");
+        Assertions.assertThat(completedChunks()).isPositive();
+        long firstRows = tx.execute(status -> em.createQuery(
+                        "select coalesce(sum(c.rowCount), 0) from BulkUpdateChunk c where c.jobId = :jobId", Long.class)
+                .setParameter("jobId", jobId)
+                .getSingleResult());
+        Assertions.assertThat(firstRows).isPositive().isLessThan(MEMBERS / 2);
+
+        //같은 jobId 로 다시 실행 - 나머지 chunk 만, 모든 대상이 정확히 한번씩 +1
+        BulkUpdateResult second = memberBulkUpdateService.bulkAgePlus(jobId, BASE_AGE, 50, 1);
+
+        Assertions.assertThat(second.getRows()).isEqualTo(MEMBERS / 2 - firstRows);
+        Assertions.assertThat(ages()).containsOnly(BASE_AGE - 1, BASE_AGE + 1);
+    }
+
+    @Test
+    public void differentChunkSizeForSameJob() {
+        memberBulkUpdateService.bulkAgePlus(jobId, BASE_AGE, 50, 1);
+
+        Assertions.assertThatThrownBy(() -> memberBulkUpdateService.bulkAgePlus(jobId, BASE_AGE, 100, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void parallelChunks() {
+        BulkUpdateResult result = memberBulkUpdateService.bulkAgePlus(jobId, BASE_AGE, 20, 4);
+
+        Assertions.assertThat(result.getRows()).isEqualTo(MEMBERS / 2);
+        Assertions.assertThat(ages()).containsOnly(BASE_AGE - 1, BASE_AGE + 1);
+    }
+
+    private long completedChunks() {
+        return tx.execute(status -> em.createQuery("select count(c) from BulkUpdateChunk c where c.jobId = :jobId", Long.class)
+                .setParameter("jobId", jobId)
+                .getSingleResult());
+    }
+
+    private List<Integer> ages() {
+        return tx.execute(status -> em.createQuery(
+                        "select m.age from Member m where m.username like 'bulk-update-%'", Integer.class)
+                .getResultList());
+    }
+}
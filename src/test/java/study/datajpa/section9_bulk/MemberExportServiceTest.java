@@ -0,0 +1,45 @@
+package study.datajpa.section9_bulk;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+@SpringBootTest
+@Transactional
+class MemberExportServiceTest {
+
+    @Autowired
+    MemberExportService memberExportService;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void exportNdjson() throws Exception {
+        Team team = new Team("export-team");
+        em.persist(team);
+        em.persist(new Member("export-1", 10, team));
+        em.persist(new Member("export-2", 20));
+        em.flush();
+        em.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = memberExportService.exportNdjson(out);
+
+        String ndjson = out.toString(StandardCharsets.UTF_8);
+        Assertions.assertThat(ndjson.split("\n")).hasSize((int) count);
+        Assertions.assertThat(ndjson).contains("\"username\":\"export-1\",\"teamName\":\"export-team\"");
+        Assertions.assertThat(ndjson).contains("\"username\":\"export-2\",\"teamName\":null");
+        //DTO 로 조회해서 영속성 컨텍스트에는 아무것도 없다
+        Assertions.assertThat(em.unwrap(org.hibernate.Session.class).getStatistics().getEntityCount()).isZero();
+    }
+}
@@ -0,0 +1,82 @@
+package study.datajpa.section9_bulk;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.section1_4_repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+@SpringBootTest
+@Transactional
+class MemberImportServiceTest {
+
+    @Autowired
+    MemberImportService memberImportService;
+    @Autowired
+    MemberRepository memberRepository;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    public void importCsv() throws Exception {
+        String csv = "username,age,teamName\n" +
+                "import-csv-1,10,import-teamA\n" +
+                "import-csv-2,20,import-teamA\n" +
+                "import-csv-3,30,\n";
+
+        ImportResult result = memberImportService.importCsv(bytes(csv));
+
+        Assertions.assertThat(result.getRows()).isEqualTo(3);
+        Assertions.assertThat(result.getTeams()).isEqualTo(1);
+
+        List<Member> members = memberRepository.findEntityGraph11ByUsername("import-csv-2");
+        Assertions.assertThat(members).hasSize(1);
+        Assertions.assertThat(members.get(0).getAge()).isEqualTo(20);
+        Assertions.assertThat(members.get(0).getTeam().getName()).isEqualTo("import-teamA");
+        Assertions.assertThat(memberRepository.findEntityGraph11ByUsername("import-csv-3").get(0).getTeam()).isNull();
+    }
+
+    @Test
+    public void importNdjson() throws Exception {
+        String ndjson = "{\"username\":\"import-json-1\",\"age\":10,\"teamName\":\"import-teamB\"}\n" +
+                "{\"username\":\"import-json-2\",\"age\":20}\n";
+
+        ImportResult result = memberImportService.importNdjson(bytes(ndjson));
+
+        Assertions.assertThat(result.getRows()).isEqualTo(2);
+        Assertions.assertThat(memberRepository.findByUsername("import-json-1")).hasSize(1);
+    }
+
+    @Test
+    public void resolveTeamIdsKeepsCallerEntitiesManaged() {
+        Member member = new Member("import-managed", 10);
+        em.persist(member);
+
+        Map<String, Long> teamIds = memberRepository.resolveTeamIds(List.of("import-new-team"));
+
+        //호출한 쪽 트랜잭션의 엔티티는 그대로 영속 상태 - 이후 변경도 반영된다
+        Assertions.assertThat(teamIds).containsKey("import-new-team");
+        Assertions.assertThat(em.contains(member)).isTrue();
+    }
+
+    @Test
+    public void invalidLine() {
+        Assertions.assertThatThrownBy(() -> memberImportService.importCsv(bytes("import-bad,abc,teamA\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("line 1");
+    }
+
+    private ByteArrayInputStream bytes(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
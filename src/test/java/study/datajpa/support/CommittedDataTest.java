@@ -0,0 +1,49 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * 커밋된 데이터가 필요한 테스트 - @Transactional(롤백) 을 쓰지 않고 직접 정리
+ *
+ * 캐시(커밋 전 값은 캐시하지 않는다), 커밋 후 기록, chunk 커밋처럼 커밋 이후의 동작은 롤백 테스트로 확인할수 없다
+ * -> tx : 데이터 준비, 확인용 트랜잭션 (하위 클래스의 @BeforeEach 보다 먼저 만들어진다)
+ * -> cleanUp() : 테스트가 끝나면 트랜잭션 하나에서 호출 - deleteLike 로 테스트 데이터를 지운다
+ * */
+@SpringBootTest
+public abstract class CommittedDataTest {
+
+    @Autowired
+    protected PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    protected EntityManager em;
+
+    protected TransactionTemplate tx;
+
+    @BeforeEach
+    protected void createTransactionTemplate() {
+        tx = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    protected void deleteCommittedData() {
+        tx.executeWithoutResult(status -> cleanUp());
+    }
+
+    protected abstract void cleanUp();
+
+    // JPQL 벌크 delete - hibernate 가 관련 2차 캐시 리전도 비운다
+    protected int deleteLike(String entityName, String attribute, String prefix) {
+        return em.createQuery("delete from " + entityName + " e where e." + attribute + " like :prefix")
+                .setParameter("prefix", prefix + "%")
+                .executeUpdate();
+    }
+}